@@ -0,0 +1,398 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * Runs many independent universes without a window, for census experiments on random soups.
+ * Each universe is either a seeded random soup or a state file from a directory. It is stepped until
+ * a CycleDetector sees it settle into a cycle (or it reaches the generation limit), and its final population, the generation
+ * it stabilised at, its period and the number of gliders it emitted are written as JSON lines (or CSV).
+ *
+ * Gliders flying away from the rest of the pattern would stop it from ever repeating, so every
+ * GLIDER_INTERVAL generations isolated gliders that are heading away are counted and removed.
+ *
+ * The universes are split over a work-stealing ForkJoinPool with one thread per core,
+ * each universe on a single thread, so throughput scales with the number of cores.
+ *
+ * usage: java BatchRunner (--seeds first-last | --dir directory) [--size 16] [--density 0.5]
+ *                         [--engine sparse] [--rule B3/S23] [--max-generations 100000]
+ *                         [--threads n] [--out results.jsonl|results.csv]
+ */
+
+public class BatchRunner {
+	//constants
+	private static final int MAX_PERIOD = CycleDetector.DEFAULT_HISTORY;	//longest cycle that is detected
+	private static final int GLIDER_INTERVAL = 64;		//generations between two searches for escaping gliders
+	private static final int GLIDER_MARGIN = 8;			//cells between an escaping glider and the rest of the pattern
+	private static final int UNLABELLED = Integer.MIN_VALUE;	//cluster of a cell that has not been reached yet
+	private static final byte[] GLIDERS = gliderTable();	//direction of the glider with each 3x3 bit mask, 0 if the mask is not a glider
+	
+	//variables
+	private long firstSeed;							//first seed of the soups
+	private long lastSeed = -1;						//last seed of the soups, lastSeed < firstSeed if soups are not run
+	private File[] files;							//state files to run, null if soups are run
+	private int soupSize = 16;						//width and height of the soups
+	private double density = 0.5;					//fraction of alive cells in the soups
+	private EngineType engineType = EngineType.SPARSE;	//engine every universe is run on
+	private Rule rule = Rule.CONWAY;				//rule every universe is run under, unless a file names its own
+	private long maxGenerations = 100000;			//generation at which a universe that has not stabilised is stopped
+	private int threads = Runtime.getRuntime().availableProcessors();	//number of universes run at once
+	private PrintStream out = System.out;			//where results are written
+	private boolean csv;							//write CSV instead of JSON lines
+	
+	public static void main(String[] args) throws IOException {
+		BatchRunner runner = new BatchRunner();
+		
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "--seeds":
+					String[] range = args[++i].split("-");
+					runner.firstSeed = Long.parseLong(range[0]);
+					runner.lastSeed = Long.parseLong(range[range.length - 1]);
+					break;
+				case "--dir":
+					runner.files = stateFiles(new File(args[++i]));
+					break;
+				case "--size":
+					runner.soupSize = Integer.parseInt(args[++i]);
+					break;
+				case "--density":
+					runner.density = Double.parseDouble(args[++i]);
+					break;
+				case "--engine":
+					runner.engineType = EngineType.valueOf(args[++i].toUpperCase());
+					break;
+				case "--rule":
+					runner.rule = Rule.parse(args[++i]);
+					break;
+				case "--max-generations":
+					runner.maxGenerations = Long.parseLong(args[++i]);
+					break;
+				case "--threads":
+					runner.threads = Integer.parseInt(args[++i]);
+					break;
+				case "--out":
+					runner.csv = args[i + 1].endsWith(".csv");
+					runner.out = new PrintStream(args[++i], "UTF-8");
+					break;
+				default:
+					System.err.println("unknown option: " + args[i]);
+					return;
+			}
+		}
+		
+		if (runner.files == null && runner.lastSeed < runner.firstSeed) {
+			System.err.println("usage: java BatchRunner (--seeds first-last | --dir directory) [options]");
+			return;
+		}
+		if (runner.engineType == EngineType.PARALLEL) {
+			System.err.println("the batch already runs one universe per core, use the dense engine instead of parallel");
+			return;
+		}
+		
+		runner.runAll();
+		if (runner.out != System.out) {
+			runner.out.close();
+		}
+	}
+	
+	/*
+	 * runs every universe and writes a line for each as it finishes
+	 */
+	public void runAll() {
+		long count = files != null ? files.length : lastSeed - firstSeed + 1;
+		long startTime = System.nanoTime();
+		
+		if (csv) {
+			out.println("source,engine,rule,initial,population,stabilised,period,gliders,status,millis");
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		pool.invoke(new BatchTask(0, count));
+		pool.shutdown();
+		
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+		System.err.println(String.format(Locale.ROOT, "%d universes in %.1f s (%.1f/s) on %d threads", count, seconds, count / seconds, threads));
+	}
+	
+	/*
+	 * Runs the universes [from, to), splitting the range in two until it is a single universe,
+	 * so idle threads can steal the other half
+	 */
+	private class BatchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final long from;	//index of the first universe
+		private final long to;		//index after the last universe
+		
+		BatchTask(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+		
+		protected void compute() {
+			if (to - from == 1) {
+				run(from);
+				return;
+			}
+			long middle = (from + to) >>> 1;
+			invokeAll(new BatchTask(from, middle), new BatchTask(middle, to));
+		}
+	}
+	
+	/*
+	 * creates, runs and reports the universe with the given index
+	 */
+	private void run(long index) {
+		long startTime = System.nanoTime();
+		LifeEngine engine = engineType.create();
+		try {
+			engine.setRule(rule);
+			String source;
+			
+			if (files != null) {
+				source = files[(int)index].getName();
+				if (!StateFile.load(files[(int)index].getPath(), engine)) {
+					report(source, engine, 0, new CycleDetector(), 0, "unreadable", startTime);
+					return;
+				}
+			}
+			else {
+				long seed = firstSeed + index;
+				source = "soup-" + seed;
+				engine.load(LifeBenchmark.randomSoup(soupSize, density, seed));
+			}
+			
+			long initial = engine.population();
+			CycleDetector cycles = new CycleDetector(MAX_PERIOD);
+			long gliders = 0;
+			cycles.observe(engine);
+			
+			while (engine.getGeneration() < maxGenerations) {
+				engine.step();
+				
+				if (engine.getGeneration() % GLIDER_INTERVAL == 0) {
+					int removed = removeGliders(engine);
+					if (removed > 0) {
+						gliders += removed;
+						cycles.reset();	//the removed cells change the hash of every later generation
+					}
+				}
+				
+				if (cycles.observe(engine) != 0) {
+					report(source, engine, initial, cycles, gliders, "stable", startTime);
+					return;
+				}
+			}
+			report(source, engine, initial, cycles, gliders, "unstable", startTime);
+		}
+		finally {
+			LifeEngine.release(engine);	//a parallel engine would otherwise keep its threads
+		}
+	}
+	
+	/*
+	 * writes the result of a universe. Called from the worker threads, so the lines are written one at a time
+	 */
+	private void report(String source, LifeEngine engine, long initial, CycleDetector cycles, long gliders, String status, long startTime) {
+		long millis = (System.nanoTime() - startTime) / 1000000;
+		long period = cycles.getPeriod();
+		long stabilised = cycles.isCycleFound() ? cycles.getCycleStart() : -1;	//first generation of the cycle
+		String line;
+		
+		if (csv) {
+			line = String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%d,%s,%d",
+					source, engineType.name(), engine.getRule(), initial, engine.population(), stabilised, period, gliders, status, millis);
+		}
+		else {
+			line = String.format(Locale.ROOT,
+					"{\"source\":\"%s\",\"engine\":\"%s\",\"rule\":\"%s\",\"initial\":%d,\"population\":%d,\"stabilised\":%d,\"period\":%d,\"gliders\":%d,\"status\":\"%s\",\"millis\":%d}",
+					source, engineType.name(), engine.getRule(), initial, engine.population(), stabilised, period, gliders, status, millis);
+		}
+		synchronized (out) {
+			out.println(line);
+		}
+	}
+	
+	/*
+	 * finds the gliders that are flying away from the rest of the pattern, removes them and returns how many there were.
+	 * Cells are grouped into clusters of cells at most two apart. A cluster of five cells in a 3x3 box
+	 * which is a glider is escaping if it lies more than GLIDER_MARGIN beyond every other cell in a direction it moves in.
+	 * Gliders moving the same way never meet, so they do not hold each other back
+	 */
+	private static int removeGliders(LifeEngine engine) {
+		long[] cells = engine.snapshot();
+		LongIntHashMap cluster = new LongIntHashMap(cells.length);	//cluster of every cell, numbered from 1
+		for (int i = 0; i < cells.length; i++) {
+			cluster.put(cells[i], UNLABELLED);
+		}
+		
+		//label the clusters, noting the top left of every cluster that could be a glider
+		int clusters = 0;
+		int[] gliderX = new int[cells.length + 1];		//left column of every glider sized cluster, by label
+		int[] gliderY = new int[cells.length + 1];		//top row of every glider sized cluster, by label
+		int[] direction = new int[cells.length + 1];	//direction of every glider (see gliderTable), 0 if the cluster is not one
+		long[] stack = new long[cells.length];
+		for (int i = 0; i < cells.length; i++) {
+			if (cluster.get(cells[i]) != UNLABELLED) {
+				continue;
+			}
+			
+			int label = ++clusters;
+			int size = 0;
+			int minX = Integer.MAX_VALUE;
+			int minY = Integer.MAX_VALUE;
+			int maxX = Integer.MIN_VALUE;
+			int maxY = Integer.MIN_VALUE;
+			int top = 0;
+			stack[top++] = cells[i];
+			cluster.put(cells[i], label);
+			
+			while (top > 0) {
+				long cell = stack[--top];
+				int x = Vector2D.unpackX(cell);
+				int y = Vector2D.unpackY(cell);
+				size++;
+				minX = Math.min(minX, x);
+				minY = Math.min(minY, y);
+				maxX = Math.max(maxX, x);
+				maxY = Math.max(maxY, y);
+				
+				for (int dy = -2; dy <= 2; dy++) {
+					for (int dx = -2; dx <= 2; dx++) {
+						long neighbour = Vector2D.pack(x + dx, y + dy);
+						if (cluster.get(neighbour) == UNLABELLED) {
+							cluster.put(neighbour, label);
+							stack[top++] = neighbour;
+						}
+					}
+				}
+			}
+			
+			if (size == 5 && maxX - minX == 2 && maxY - minY == 2) {
+				gliderX[label] = minX;
+				gliderY[label] = minY;
+				direction[label] = -1;	//a candidate, its shape is checked below
+			}
+		}
+		
+		//work out which candidates are gliders from the 3x3 bit mask of their cells
+		int[] mask = new int[clusters + 1];
+		for (int i = 0; i < cells.length; i++) {
+			int label = cluster.get(cells[i]);
+			if (direction[label] != 0) {
+				mask[label] |= 1 << ((Vector2D.unpackY(cells[i]) - gliderY[label]) * 3 + Vector2D.unpackX(cells[i]) - gliderX[label]);
+			}
+		}
+		for (int label = 1; label <= clusters; label++) {
+			if (direction[label] != 0) {
+				direction[label] = GLIDERS[mask[label]];
+			}
+		}
+		
+		//remove the gliders that are flying away from every other cell
+		int removed = 0;
+		for (int label = 1; label <= clusters; label++) {
+			if (direction[label] == 0) {
+				continue;
+			}
+			
+			int restMinX = Integer.MAX_VALUE;
+			int restMinY = Integer.MAX_VALUE;
+			int restMaxX = Integer.MIN_VALUE;
+			int restMaxY = Integer.MIN_VALUE;
+			for (int i = 0; i < cells.length; i++) {
+				int other = cluster.get(cells[i]);
+				if (other > 0 && direction[other] != direction[label]) {
+					restMinX = Math.min(restMinX, Vector2D.unpackX(cells[i]));
+					restMinY = Math.min(restMinY, Vector2D.unpackY(cells[i]));
+					restMaxX = Math.max(restMaxX, Vector2D.unpackX(cells[i]));
+					restMaxY = Math.max(restMaxY, Vector2D.unpackY(cells[i]));
+				}
+			}
+			
+			boolean right = (direction[label] & 1) != 0;
+			boolean down = (direction[label] & 2) != 0;
+			int minX = gliderX[label];
+			int minY = gliderY[label];
+			boolean escaping =	(right ? minX > restMaxX + GLIDER_MARGIN : minX + 2 < restMinX - GLIDER_MARGIN) ||
+								(down ? minY > restMaxY + GLIDER_MARGIN : minY + 2 < restMinY - GLIDER_MARGIN);
+			if (escaping) {
+				for (int i = 0; i < cells.length; i++) {
+					if (cluster.get(cells[i]) == label) {
+						engine.setAlive(Vector2D.unpackX(cells[i]), Vector2D.unpackY(cells[i]), false);
+						cluster.put(cells[i], -label);	//removed cells no longer count as the rest of the pattern
+					}
+				}
+				removed++;
+			}
+		}
+		return removed;
+	}
+	
+	/*
+	 * returns the direction of the glider with every 3x3 bit mask (bit y * 3 + x), 0 if the mask is not a glider.
+	 * The direction is 4 plus 1 if the glider moves right and 2 if it moves down.
+	 * The masks are found by stepping a glider through its four phases and mirroring it in both axes
+	 */
+	private static byte[] gliderTable() {
+		byte[] table = new byte[1 << 9];
+		LifeEngine glider = new SparseLifeEngine();
+		glider.setAlive(1, 0, true);	//a glider moving right and down
+		glider.setAlive(2, 1, true);
+		glider.setAlive(0, 2, true);
+		glider.setAlive(1, 2, true);
+		glider.setAlive(2, 2, true);
+		
+		for (int phase = 0; phase < 4; phase++) {
+			long[] cells = glider.snapshot();
+			int[] bounds = StateFile.getBounds(cells);
+			
+			for (int mirror = 0; mirror < 4; mirror++) {
+				int mask = 0;
+				for (int i = 0; i < cells.length; i++) {
+					int x = Vector2D.unpackX(cells[i]) - bounds[0];
+					int y = Vector2D.unpackY(cells[i]) - bounds[1];
+					if ((mirror & 1) != 0) {
+						x = 2 - x;
+					}
+					if ((mirror & 2) != 0) {
+						y = 2 - y;
+					}
+					mask |= 1 << (y * 3 + x);
+				}
+				table[mask] = (byte)(4 | (~mirror & 3));
+			}
+			glider.step();
+		}
+		return table;
+	}
+	
+	/*
+	 * returns the state files in the directory, sorted by name
+	 */
+	private static File[] stateFiles(File directory) throws IOException {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			throw new IOException("not a directory: " + directory);
+		}
+		
+		Arrays.sort(files);
+		List<File> stateFiles = new ArrayList<File>();
+		for (File file : files) {
+			if (file.isFile()) {
+				stateFiles.add(file);
+			}
+		}
+		return stateFiles.toArray(new File[stateFiles.size()]);
+	}
+}
@@ -0,0 +1,136 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * Reads and writes the compact binary state format (.lifb).
+ * Only the alive cells are stored, sorted by row and delta encoded, so a sparse pattern
+ * costs a few bytes per alive cell no matter how big its bounds are.
+ *
+ * Layout: the MAGIC bytes and a version byte, followed by a gzip stream of variable length integers:
+ * width, height, number of cells, then for every cell the number of rows since the previous cell
+ * and either its column (on a new row) or the number of dead cells since the previous cell (on the same row).
+ * The top left of the bounds of the cells is (0, 0).
+ */
+
+public class BinaryFormat {
+	//constants
+	public static final byte[] MAGIC = {'L', 'I', 'F', 'B'};	//first bytes of every binary state file
+	private static final int VERSION = 1;						//version of the layout written
+	
+	/*
+	 * loads the pattern into the engine, with the top left of the pattern at (0, 0)
+	 */
+	public static void load(String fileDirectory, LifeEngine engine, StateFile.ProgressListener listener) throws IOException {
+		long totalBytes = Files.size(Paths.get(fileDirectory));
+		
+		try (StateFile.CountingInputStream counted = new StateFile.CountingInputStream(Files.newInputStream(Paths.get(fileDirectory)), totalBytes, listener)) {
+			for (int i = 0; i < MAGIC.length; i++) {
+				if (counted.read() != MAGIC[i]) {
+					throw new IOException("not a binary state file: " + fileDirectory);
+				}
+			}
+			int version = counted.read();
+			if (version != VERSION) {
+				throw new IOException("unsupported binary state version " + version + ": " + fileDirectory);
+			}
+			
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(counted)));
+			int width = readVarInt(in);
+			int height = readVarInt(in);
+			int count = readVarInt(in);
+			engine.reserve(width, height);
+			
+			int x = -1;	//column of the previous cell
+			int y = 0;	//row of the previous cell
+			for (int i = 0; i < count; i++) {
+				int rows = readVarInt(in);
+				if (rows > 0) {
+					y += rows;
+					x = readVarInt(in);
+				}
+				else {
+					x += readVarInt(in) + 1;
+				}
+				engine.setAlive(x, y, true);
+			}
+		}
+	}
+	
+	/*
+	 * saves the cells, normalised so the top left of their bounds is (0, 0)
+	 */
+	public static void save(String fileDirectory, long[] cells) throws IOException {
+		int[] bounds = StateFile.getBounds(cells);
+		long[] sorted = StateFile.sortByRow(cells, bounds);
+		
+		try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(Paths.get(fileDirectory)))) {
+			file.write(MAGIC);
+			file.write(VERSION);
+			
+			GZIPOutputStream out = new GZIPOutputStream(file, 1 << 16);
+			writeVarInt(out, cells.length == 0 ? 0 : bounds[2] + 1);
+			writeVarInt(out, cells.length == 0 ? 0 : bounds[3] + 1);
+			writeVarInt(out, sorted.length);
+			
+			int x = -1;	//column of the previous cell
+			int y = 0;	//row of the previous cell
+			for (int i = 0; i < sorted.length; i++) {
+				int row = (int)(sorted[i] >>> 32);
+				int column = (int)sorted[i];
+				
+				if (row > y) {
+					writeVarInt(out, row - y);
+					writeVarInt(out, column);
+				}
+				else {
+					writeVarInt(out, 0);
+					writeVarInt(out, column - x - 1);
+				}
+				x = column;
+				y = row;
+			}
+			out.finish();
+		}
+	}
+	
+	/*
+	 * writes a non negative int in 7 bit groups, low group first, with the top bit set on all but the last byte
+	 */
+	private static void writeVarInt(OutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+	
+	/*
+	 * reads an int written by writeVarInt
+	 */
+	private static int readVarInt(InputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.read();
+			if (b == -1) {
+				throw new EOFException("truncated binary state file");
+			}
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("corrupt binary state file");
+	}
+}
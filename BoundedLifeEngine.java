@@ -0,0 +1,318 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * BoundedLifeEngine runs a universe of a fixed width x height, either wrapped into a torus
+ * or with hard edges (see Topology). Nothing is created on demand: the cells are two flat byte arrays,
+ * one byte per cell, allocated once, so the memory use is known up front and every generation
+ * is a single sequential sweep over the arrays.
+ *
+ * The board is centred on (0, 0), like the view: it covers x from -width/2 to width - width/2 - 1,
+ * and the same for y. Each array has a border of one cell all the way round, so the sweep never
+ * checks bounds. With hard edges the border is a sentinel that always stays dead; on a torus it is
+ * filled with the cells from the opposite edge before every step, using precomputed indices.
+ * The Zobrist hash is updated by the sweep on every birth and death, so hash() costs nothing and nothing is allocated while stepping.
+ */
+
+public class BoundedLifeEngine implements LifeEngine {
+	//constants
+	public static final int DEFAULT_SIZE = 1024;	//width and height when not given by the life.board.width and life.board.height system properties
+	
+	//variables
+	private final int width;			//number of columns
+	private final int height;			//number of rows
+	private final int stride;			//number of bytes between the start of two rows (width + 2 border cells)
+	private final int originX;			//plane x coordinate of the left most column
+	private final int originY;			//plane y coordinate of the top row
+	private final Topology topology;	//what lies beyond the edges
+	private final int[] borderCells;	//index of every border cell
+	private final int[] wrappedCells;	//index of the cell each border cell copies on a torus
+	private byte[] cells;				//the current generation, 1 for alive
+	private byte[] next;				//the generation being computed. Swapped with cells after every step
+	private final int[] flips;			//columns of the cells of a row that were born or died in the sweep
+	private byte[] table;				//next state of a cell, indexed by its state * 9 + its neighbour count
+	private Rule rule;					//the rule the universe is stepped with
+	private long population;			//number of alive cells
+	private long hash;					//Zobrist hash of the alive cells, updated on every birth and death
+	private long generation;			//number of generations stepped since the last clear
+	private SimulationMetrics metrics;	//receives the time of each phase, null if not measured
+	
+	/*
+	 * constructor creates an empty universe of the default size
+	 */
+	public BoundedLifeEngine(Topology topology) {
+		this(Integer.getInteger("life.board.width", DEFAULT_SIZE), Integer.getInteger("life.board.height", DEFAULT_SIZE), topology);
+	}
+	
+	/*
+	 * constructor creates an empty universe of the given size and topology
+	 */
+	public BoundedLifeEngine(int width, int height, Topology topology) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("board size must be positive: " + width + "x" + height);
+		}
+		
+		this.width = width;
+		this.height = height;
+		this.stride = width + 2;
+		this.originX = -(width / 2);
+		this.originY = -(height / 2);
+		this.topology = topology;
+		this.cells = new byte[(height + 2) * stride];
+		this.next = new byte[(height + 2) * stride];
+		this.flips = new int[width];
+		
+		//the border: the top and bottom rows including the corners, then the left and right columns
+		borderCells = new int[2 * stride + 2 * height];
+		wrappedCells = new int[borderCells.length];
+		int count = 0;
+		for (int x = 0; x < stride; x++) {
+			int column = Math.floorMod(x - 1, width) + 1;
+			borderCells[count] = x;
+			wrappedCells[count++] = height * stride + column;
+			borderCells[count] = (height + 1) * stride + x;
+			wrappedCells[count++] = stride + column;
+		}
+		for (int y = 1; y <= height; y++) {
+			borderCells[count] = y * stride;
+			wrappedCells[count++] = y * stride + width;
+			borderCells[count] = y * stride + width + 1;
+			wrappedCells[count++] = y * stride + 1;
+		}
+		
+		setRule(Rule.CONWAY);
+	}
+	
+	/*
+	 * advances the universe by one generation
+	 */
+	public void step() {
+		if (metrics != null) {
+			long start = System.nanoTime();
+			wrapBorder();
+			long wrapped = System.nanoTime();
+			sweep();
+			long updated = System.nanoTime();
+			swapBuffers();
+			
+			metrics.addTime(SimulationMetrics.Phase.RESET, wrapped - start);
+			metrics.addTime(SimulationMetrics.Phase.UPDATE, updated - wrapped);
+			metrics.addTime(SimulationMetrics.Phase.CLEANUP, System.nanoTime() - updated);
+			metrics.setTrackedCells((long)width * height);
+		}
+		else {
+			wrapBorder();
+			sweep();
+			swapBuffers();
+		}
+		generation++;
+	}
+	
+	/*
+	 * on a torus, copies the cells of each edge into the border on the opposite side
+	 */
+	private void wrapBorder() {
+		if (topology == Topology.TORUS) {
+			for (int i = 0; i < borderCells.length; i++) {
+				cells[borderCells[i]] = cells[wrappedCells[i]];
+			}
+		}
+	}
+	
+	/*
+	 * computes the next generation into next, row by row. The rule is a table lookup, so there are no branches:
+	 * the column of every cell is written to flips, but only kept if the cell was born or died,
+	 * and after the row only the kept cells are added to the hash
+	 */
+	private void sweep() {
+		byte[] c = cells;
+		byte[] n = next;
+		int s = stride;
+		int[] f = flips;
+		long alive = 0;
+		long h = hash;
+		
+		for (int y = 1; y <= height; y++) {
+			int rowStart = y * s + 1;
+			int end = rowStart + width;
+			int flipNum = 0;
+			for (int i = rowStart; i < end; i++) {
+				int neighbourNum =	c[i - s - 1] + c[i - s] + c[i - s + 1] +
+									c[i - 1] + c[i + 1] +
+									c[i + s - 1] + c[i + s] + c[i + s + 1];
+				byte state = table[c[i] * 9 + neighbourNum];
+				n[i] = state;
+				alive += state;
+				f[flipNum] = i - rowStart;
+				flipNum += state ^ c[i];	//keeps the column only if the cell was born or died
+			}
+			
+			for (int k = 0; k < flipNum; k++) {
+				h ^= CycleDetector.zobrist(Vector2D.pack(originX + f[k], originY + y - 1));
+			}
+		}
+		population = alive;
+		hash = h;
+	}
+	
+	/*
+	 * swaps the current and next generation buffers
+	 */
+	private void swapBuffers() {
+		byte[] temp = cells;
+		cells = next;
+		next = temp;
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public void skipGenerations(long generations) {
+		generation += generations;
+	}
+	
+	public long population() {
+		return population;
+	}
+	
+	public long hash() {
+		return hash;
+	}
+	
+	public void clear() {
+		Arrays.fill(cells, (byte)0);
+		Arrays.fill(next, (byte)0);
+		population = 0;
+		hash = 0;
+		generation = 0;
+	}
+	
+	/*
+	 * sets a cell. On a torus the position wraps onto the board; with hard edges cells off the board are always dead
+	 */
+	public void setAlive(int x, int y, boolean alive) {
+		int index = indexOf(x, y);
+		if (index < 0) {
+			return;
+		}
+		
+		byte state = alive ? (byte)1 : (byte)0;
+		if (state == cells[index]) {
+			return;
+		}
+		population += state - cells[index];
+		hash ^= CycleDetector.zobrist(Vector2D.pack(originX + index % stride - 1, originY + index / stride - 1));
+		cells[index] = state;
+	}
+	
+	public boolean isAlive(int x, int y) {
+		int index = indexOf(x, y);
+		return index >= 0 && cells[index] != 0;
+	}
+	
+	public void setRule(Rule rule) {
+		this.rule = rule;
+		table = new byte[18];
+		for (int neighbourNum = 0; neighbourNum <= 8; neighbourNum++) {
+			table[neighbourNum] = rule.isAliveNext(false, neighbourNum) ? (byte)1 : (byte)0;
+			table[9 + neighbourNum] = rule.isAliveNext(true, neighbourNum) ? (byte)1 : (byte)0;
+		}
+	}
+	
+	public Rule getRule() {
+		return rule;
+	}
+	
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public long[] snapshot() {
+		long[] snapshot = new long[(int)population];
+		int count = 0;
+		
+		for (int y = 0; y < height; y++) {
+			int rowStart = (y + 1) * stride + 1;
+			for (int x = 0; x < width; x++) {
+				if (cells[rowStart + x] != 0) {
+					snapshot[count++] = Vector2D.pack(originX + x, originY + y);
+				}
+			}
+		}
+		return snapshot;
+	}
+	
+	/*
+	 * returns the alive cells inside the rectangle, only visiting the part of the board that overlaps it
+	 */
+	public long[] snapshot(int left, int top, int width, int height) {
+		LongList inside = new LongList();
+		int firstColumn = (int)Math.max(0, (long)left - originX);
+		int lastColumn = (int)Math.min(this.width, (long)left + width - originX);
+		int firstRow = (int)Math.max(0, (long)top - originY);
+		int lastRow = (int)Math.min(this.height, (long)top + height - originY);
+		
+		for (int y = firstRow; y < lastRow; y++) {
+			int rowStart = (y + 1) * stride + 1;
+			for (int x = firstColumn; x < lastColumn; x++) {
+				if (cells[rowStart + x] != 0) {
+					inside.add(Vector2D.pack(originX + x, originY + y));
+				}
+			}
+		}
+		return inside.toArray();
+	}
+	
+	/*
+	 * counts the blocks straight from the part of the board that overlaps them
+	 */
+	public void countBlocks(int left, int top, int blockSize, int columns, int rows, int[] counts) {
+		Arrays.fill(counts, 0, columns * rows, 0);
+		int firstColumn = (int)Math.max(0, (long)left - originX);
+		int lastColumn = (int)Math.min(width, (long)left + (long)blockSize * columns - originX);
+		int firstRow = (int)Math.max(0, (long)top - originY);
+		int lastRow = (int)Math.min(height, (long)top + (long)blockSize * rows - originY);
+		
+		for (int y = firstRow; y < lastRow; y++) {
+			int rowStart = (y + 1) * stride + 1;
+			int blockRowStart = (int)(((long)originY + y - top) / blockSize) * columns;
+			for (int x = firstColumn; x < lastColumn; x++) {
+				counts[blockRowStart + (int)(((long)originX + x - left) / blockSize)] += cells[rowStart + x];
+			}
+		}
+	}
+	
+	/*
+	 * returns the index in cells of the cell (x, y), wrapped onto the board on a torus.
+	 * Returns -1 for a cell off a board with hard edges
+	 */
+	private int indexOf(int x, int y) {
+		long column = (long)x - originX;
+		long row = (long)y - originY;
+		
+		if (topology == Topology.TORUS) {
+			column = Math.floorMod(column, (long)width);
+			row = Math.floorMod(row, (long)height);
+		}
+		else if (column < 0 || column >= width || row < 0 || row >= height) {
+			return -1;
+		}
+		return (int)(row + 1) * stride + (int)column + 1;
+	}
+	
+	//getters
+	public int getWidth() {
+		return width;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+	
+	public Topology getTopology() {
+		return topology;
+	}
+}
@@ -0,0 +1,168 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * CellRenderer draws snapshots into a cached BufferedImage and blits it to the screen in one go.
+ * Cells are written straight into the int[] pixels of the image. Between two frames of the same view
+ * only the cells that were born or died since the last drawn snapshot are written, so the cost of a frame
+ * follows the activity of the pattern and not its population.
+ *
+ * Snapshots are drawn through the Viewport they were taken for. A zoomed out snapshot holds a count
+ * per block instead of cells; each block is drawn in one of SHADES colours between the background
+ * and the cell colour, darker the more of its cells are alive.
+ */
+
+public class CellRenderer {
+	//constants
+	private static final int SHADES = 64;	//number of colours blocks are drawn in
+	
+	//variables
+	private final int cellColor;		//colour of alive entities as an RGB int
+	
+	private BufferedImage image;		//the cached frame
+	private int[] pixels;				//the pixels of image, one RGB int per pixel
+	private int backgroundColor;		//colour the image was cleared to
+	private int[] shades;				//the colours of blocks, from the emptiest to the fullest
+	private CellSnapshot drawn;			//the snapshot the cached frame shows, null if the frame has to be drawn from scratch
+	
+	/*
+	 * constructor sets the colour of the drawn entities
+	 */
+	public CellRenderer(Color cellColor) {
+		this.cellColor = cellColor.getRGB();
+	}
+	
+	/*
+	 * draws a snapshot taken for a viewport (see CellSnapshot.of) into the area (0, 0, width, height) of g
+	 */
+	public void draw(Graphics g, CellSnapshot snapshot, int width, int height, Color background) {
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+		
+		if (image == null || image.getWidth() != width || image.getHeight() != height || background.getRGB() != backgroundColor) {
+			//anything cached is no longer valid
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+			backgroundColor = background.getRGB();
+			shades = mixShades(backgroundColor, cellColor);
+			drawn = null;
+		}
+		
+		if (snapshot != drawn) {
+			if (drawn != null && !snapshot.isAggregated() && snapshot.hasSameView(drawn)) {
+				updateChangedCells(drawn, snapshot);
+			}
+			else {
+				redraw(snapshot);
+			}
+			drawn = snapshot;
+		}
+		
+		g.drawImage(image, 0, 0, null);
+	}
+	
+	/*
+	 * clears the image and draws the whole snapshot
+	 */
+	private void redraw(CellSnapshot snapshot) {
+		Arrays.fill(pixels, backgroundColor);
+		Viewport viewport = snapshot.getViewport();
+		
+		if (snapshot.isAggregated()) {
+			int blockSize = viewport.getBlockSize();
+			int area = blockSize * blockSize;
+			long left = viewport.getLeft(snapshot.getWidth());
+			long top = viewport.getTop(snapshot.getHeight());
+			
+			for (int row = 0; row < snapshot.getRows(); row++) {
+				for (int column = 0; column < snapshot.getColumns(); column++) {
+					int count = snapshot.getBlockCount(column, row);
+					if (count > 0) {
+						//a quarter full block is drawn in the cell colour, any alive cell shows
+						int shade = (int)Math.min(SHADES - 1, (SHADES / 4) + (long)count * 3 * SHADES / area);
+						fillRect(viewport, left + (long)column * blockSize, top + (long)row * blockSize, blockSize, shades[shade]);
+					}
+				}
+			}
+		}
+		else {
+			for (int i = 0; i < snapshot.size(); i++) {
+				fillCell(viewport, snapshot.getCell(i), cellColor);
+			}
+		}
+	}
+	
+	/*
+	 * redraws only the cells that differ between the two snapshots of the same view.
+	 * Both snapshots are sorted, so the differences are found in a single merge
+	 */
+	private void updateChangedCells(CellSnapshot from, CellSnapshot to) {
+		Viewport viewport = to.getViewport();
+		int i = 0;
+		int j = 0;
+		
+		while (i < from.size() || j < to.size()) {
+			if (j == to.size() || (i < from.size() && from.getCell(i) < to.getCell(j))) {
+				fillCell(viewport, from.getCell(i++), backgroundColor);	//died
+			}
+			else if (i == from.size() || to.getCell(j) < from.getCell(i)) {
+				fillCell(viewport, to.getCell(j++), cellColor);			//born
+			}
+			else {
+				i++;													//unchanged
+				j++;
+			}
+		}
+	}
+	
+	/*
+	 * fills the pixels of the entity at the packed position with the colour
+	 */
+	private void fillCell(Viewport viewport, long cell, int color) {
+		fillRect(viewport, Vector2D.unpackX(cell), Vector2D.unpackY(cell), 1, color);
+	}
+	
+	/*
+	 * fills the pixels of the size x size cells with their top left cell at (x, y) with the colour, clipped to the image
+	 */
+	private void fillRect(Viewport viewport, long x, long y, int size, int color) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int x0 = Math.max(viewport.toScreenX(x, width), 0);
+		int x1 = Math.min(viewport.toScreenX(x + size, width), width);
+		int y0 = Math.max(viewport.toScreenY(y, height), 0);
+		int y1 = Math.min(viewport.toScreenY(y + size, height), height);
+		
+		for (int row = y0; row < y1; row++) {
+			Arrays.fill(pixels, row * width + x0, row * width + Math.max(x0, x1), color);
+		}
+	}
+	
+	/*
+	 * returns SHADES colours going from the background colour (exclusive) to the cell colour
+	 */
+	private static int[] mixShades(int background, int cell) {
+		int[] mixed = new int[SHADES];
+		for (int i = 0; i < SHADES; i++) {
+			int r = mix((background >> 16) & 0xFF, (cell >> 16) & 0xFF, i + 1);
+			int g = mix((background >> 8) & 0xFF, (cell >> 8) & 0xFF, i + 1);
+			int b = mix(background & 0xFF, cell & 0xFF, i + 1);
+			mixed[i] = (r << 16) | (g << 8) | b;
+		}
+		return mixed;
+	}
+	
+	/*
+	 * returns the colour channel weight / SHADES of the way from one value to the other
+	 */
+	private static int mix(int from, int to, int weight) {
+		return from + (to - from) * weight / SHADES;
+	}
+}
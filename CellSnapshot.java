@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * An immutable copy of the alive cells of an engine at one generation.
+ * The game thread publishes a new snapshot after each generation and the paint thread
+ * only ever reads snapshots, so drawing never sees a half updated generation
+ * and never has to lock the engine.
+ * The cells are kept sorted so two snapshots can be compared in a single pass.
+ *
+ * A snapshot taken for a Viewport only holds what that view shows: the cells on screen,
+ * or when the view is zoomed out (see Viewport.isAggregated) only the number of alive cells in each block.
+ */
+
+public final class CellSnapshot {
+	//variables
+	private final long[] cells;			//packed positions of the alive cells (see Vector2D.pack), in ascending order
+	private final long generation;		//generation the snapshot was taken at
+	private final Viewport viewport;	//the view the snapshot was taken for, null if it holds every alive cell
+	private final int width;			//width in pixels of the screen the snapshot was taken for
+	private final int height;			//height in pixels of the screen the snapshot was taken for
+	private final int[] blockCounts;	//alive cells of each block of an aggregated view, row by row. null if the view is not aggregated
+	
+	/*
+	 * constructor takes ownership of the cells array, which must not be changed afterwards
+	 */
+	public CellSnapshot(long[] cells, long generation) {
+		this(cells, generation, null, 0, 0, null);
+	}
+	
+	private CellSnapshot(long[] cells, long generation, Viewport viewport, int width, int height, int[] blockCounts) {
+		Arrays.sort(cells);
+		this.cells = cells;
+		this.generation = generation;
+		this.viewport = viewport;
+		this.width = width;
+		this.height = height;
+		this.blockCounts = blockCounts;
+	}
+	
+	/*
+	 * takes a snapshot of the current generation of the engine
+	 */
+	public static CellSnapshot of(LifeEngine engine) {
+		return new CellSnapshot(engine.snapshot(), engine.getGeneration());
+	}
+	
+	/*
+	 * takes a snapshot of what the viewport shows of the current generation, on a screen of width x height pixels.
+	 * Only the cells (or blocks) on screen are asked from the engine
+	 */
+	public static CellSnapshot of(LifeEngine engine, Viewport viewport, int width, int height) {
+		int left = viewport.getLeft(width);
+		int top = viewport.getTop(height);
+		int columns = viewport.getColumns(width);
+		int rows = viewport.getRows(height);
+		
+		if (viewport.isAggregated()) {
+			int[] blockCounts = new int[columns * rows];
+			engine.countBlocks(left, top, viewport.getBlockSize(), columns, rows, blockCounts);
+			return new CellSnapshot(new long[0], engine.getGeneration(), viewport, width, height, blockCounts);
+		}
+		return new CellSnapshot(engine.snapshot(left, top, columns, rows), engine.getGeneration(), viewport, width, height, null);
+	}
+	
+	/*
+	 * returns the number of alive cells
+	 */
+	public int size() {
+		return cells.length;
+	}
+	
+	/*
+	 * returns the packed position of the i-th alive cell
+	 */
+	public long getCell(int i) {
+		return cells[i];
+	}
+	
+	public int getX(int i) {
+		return Vector2D.unpackX(cells[i]);
+	}
+	
+	public int getY(int i) {
+		return Vector2D.unpackY(cells[i]);
+	}
+	
+	/*
+	 * returns a copy of the packed positions of all alive cells
+	 */
+	public long[] toArray() {
+		return cells.clone();
+	}
+	
+	/*
+	 * returns whether both snapshots were taken for the same view on the same size of screen
+	 */
+	public boolean hasSameView(CellSnapshot other) {
+		return viewport != null && viewport.equals(other.viewport) && width == other.width && height == other.height;
+	}
+	
+	/*
+	 * returns whether the snapshot holds block counts rather than cells
+	 */
+	public boolean isAggregated() {
+		return blockCounts != null;
+	}
+	
+	/*
+	 * returns the number of alive cells in the block of the view at (column, row)
+	 */
+	public int getBlockCount(int column, int row) {
+		return blockCounts[row * getColumns() + column];
+	}
+	
+	/*
+	 * returns the number of blocks across the view
+	 */
+	public int getColumns() {
+		return viewport.getColumns(width);
+	}
+	
+	/*
+	 * returns the number of blocks down the view
+	 */
+	public int getRows() {
+		return viewport.getRows(height);
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public Viewport getViewport() {
+		return viewport;
+	}
+	
+	public int getWidth() {
+		return width;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * CycleDetector finds when a universe has settled into a still life or an oscillator.
+ * It is given the hash of the universe (see LifeEngine.hash) after each step and keeps a bounded
+ * history of recent hashes. When a hash comes back, the universe repeats: its period is the number
+ * of generations between the two, and it will repeat forever from then on. Comparing hashes
+ * rather than snapshots makes each check cost a few comparisons, whatever the size of the universe.
+ *
+ * The hashes are Zobrist hashes: every cell position has a pseudo random key and the hash of
+ * a universe is the XOR of the keys of its alive cells, so engines can update it on every birth
+ * and death instead of recomputing it.
+ */
+
+public class CycleDetector {
+	//constants
+	public static final int DEFAULT_HISTORY = 64;	//number of hashes kept by default, the longest period found
+	
+	/*
+	 * What the game does once the universe is known to repeat
+	 */
+	public enum Action {
+		CONTINUE("keep stepping"),
+		HALT("halt"),
+		FAST_FORWARD("fast forward");
+		
+		//variables
+		private final String label;	//name shown in the hud
+		
+		Action(String label) {
+			this.label = label;
+		}
+		
+		public String toString() {
+			return label;
+		}
+	}
+	
+	//variables
+	private final long[] hashes;		//the recent hashes, a ring buffer
+	private final long[] generations;	//the generation of each hash
+	private int size;					//number of hashes in the ring
+	private int next;					//slot the next hash is written to
+	private long period;				//period of the cycle found, 0 if none has been found
+	private long cycleStart;			//generation the cycle was first seen at
+	
+	/*
+	 * constructor creates a detector that finds cycles of up to the given number of observations
+	 */
+	public CycleDetector(int history) {
+		hashes = new long[history];
+		generations = new long[history];
+	}
+	
+	public CycleDetector() {
+		this(DEFAULT_HISTORY);
+	}
+	
+	/*
+	 * records the hash of the universe at the given generation and returns the period of the cycle
+	 * it closes, or 0 if it is new. If the observations skip generations the period found is
+	 * the distance between two observations, and so may be a multiple of the true period
+	 */
+	public long observe(long generation, long hash) {
+		if (period != 0) {
+			return period;
+		}
+		
+		//look through the history from the newest hash, so the shortest period is found
+		for (int i = 1; i <= size; i++) {
+			int slot = (next - i + hashes.length) % hashes.length;
+			if (hashes[slot] == hash && generations[slot] < generation) {
+				period = generation - generations[slot];
+				cycleStart = generations[slot];
+				return period;
+			}
+		}
+		
+		hashes[next] = hash;
+		generations[next] = generation;
+		next = (next + 1) % hashes.length;
+		size = Math.min(size + 1, hashes.length);
+		return 0;
+	}
+	
+	/*
+	 * records the current hash of the engine, see observe(long, long)
+	 */
+	public long observe(LifeEngine engine) {
+		return observe(engine.getGeneration(), engine.hash());
+	}
+	
+	/*
+	 * forgets the history and any cycle found, for when the universe was changed from outside
+	 */
+	public void reset() {
+		size = 0;
+		next = 0;
+		period = 0;
+		cycleStart = 0;
+	}
+	
+	/*
+	 * advances the engine by the given number of generations. Once a cycle has been found only the
+	 * generations that change the phase of the cycle are stepped; the rest are skipped
+	 */
+	public void step(LifeEngine engine, long generationCount) {
+		if (period == 0) {
+			engine.step(generationCount);
+			return;
+		}
+		
+		long stepped = generationCount % period;
+		engine.step(stepped);
+		engine.skipGenerations(generationCount - stepped);
+	}
+	
+	/*
+	 * returns the Zobrist key of a cell (a packed position, see Vector2D.pack).
+	 * The keys are the splitmix64 mix of the position, so they look random but need no table
+	 */
+	public static long zobrist(long cell) {
+		long z = cell + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	//getters
+	public boolean isCycleFound() {
+		return period != 0;
+	}
+	
+	public long getPeriod() {
+		return period;
+	}
+	
+	public long getCycleStart() {
+		return cycleStart;
+	}
+}
@@ -0,0 +1,529 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * DenseLifeEngine stores the universe as a bitboard: every row is a run of longs
+ * with one bit per cell, so 64 cells are stepped at once with bitwise full-adder logic.
+ * This suits dense patterns (filled squares, random soups) far better than one object per cell.
+ *
+ * The board is a finite window onto the infinite plane. Whenever an alive cell touches the
+ * edge of the window the board grows, so patterns behave exactly as they do in SparseLifeEngine.
+ *
+ * Layout: bit ((x - originX) & 63) of a word holds the cell x, so the cell to the west of a bit is the
+ * next lower bit. originX is not a multiple of 64 (the board starts centred on x = 0), so this is not x & 63.
+ * Each row has one zero padding word on either side and there is one zero padding row above and
+ * below the board, so the kernel never has to check array bounds.
+ *
+ * Conway's game of life has its own kernel; any other Rule is applied by comparing the
+ * neighbour counts with each count the rule uses, 64 cells at a time.
+ * The rows are stepped by a RowKernel, which runs these kernels on whole vectors of words where the CPU allows.
+ *
+ * The Zobrist hash is only computed from the whole board the first time hash() is called. From then on it is kept up to date
+ * from the bits that flip, next ^ cells, of every row right after the kernel wrote it, so observing the engine every batch
+ * costs no extra pass over the board. Until then stepping pays nothing for it, as in the benchmarks.
+ */
+
+public class DenseLifeEngine implements LifeEngine {
+	//constants
+	protected static final int INITIAL_WORDS = 1;	//initial board width in words (64 cells each)
+	protected static final int INITIAL_ROWS = 64;	//initial board height in rows
+	private static final RowKernel DEFAULT_KERNEL = RowKernel.create();	//the fastest kernel available, shared by every engine
+	
+	//variables
+	protected int wordsPerRow;	//width of the board in words, not including padding
+	protected int rows;			//height of the board in rows, not including padding
+	protected int stride;		//number of words between the start of two rows (wordsPerRow + 2 padding words)
+	protected long[] cells;		//the current generation
+	protected long[] next;		//the generation being computed. Swapped with cells after every step
+	protected int originX;		//plane x coordinate of the left most cell of the board
+	protected int originY;		//plane y coordinate of the top row of the board
+	protected long generation;	//number of generations stepped since the last clear
+	protected Rule rule = Rule.CONWAY;	//the rule the universe is stepped with
+	protected SimulationMetrics metrics;	//receives the time of each phase, null if not measured
+	protected RowKernel kernel = DEFAULT_KERNEL;	//computes the next generation of the rows
+	protected long hash;		//Zobrist hash of the alive cells, up to date while hashing
+	protected boolean hashing;	//whether hash is kept up to date, from the first call of hash() on
+	
+	/*
+	 * constructor creates an empty universe
+	 */
+	public DenseLifeEngine() {
+		clear();
+	}
+	
+	/*
+	 * advances the universe by one generation
+	 */
+	public void step() {
+		if (metrics != null) {
+			stepTimed();
+		}
+		else {
+			growToFitEdges();
+			stepRows(0, rows);
+			swapBuffers();
+		}
+		generation++;
+	}
+	
+	/*
+	 * runs the phases of step(), reporting the time of each to the metrics.
+	 * Growing the board is reported as RESET; the kernel counts and updates in one pass, reported as UPDATE
+	 */
+	protected void stepTimed() {
+		long start = System.nanoTime();
+		growToFitEdges();
+		long grown = System.nanoTime();
+		stepRows(0, rows);
+		long updated = System.nanoTime();
+		swapBuffers();
+		long end = System.nanoTime();
+		
+		metrics.addTime(SimulationMetrics.Phase.RESET, grown - start);
+		metrics.addTime(SimulationMetrics.Phase.UPDATE, updated - grown);
+		metrics.addTime(SimulationMetrics.Phase.CLEANUP, end - updated);
+		metrics.setTrackedCells((long)getBoardWidth() * rows);
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public void skipGenerations(long generations) {
+		generation += generations;
+	}
+	
+	/*
+	 * returns the Zobrist hash kept up to date by the steps. The first call computes it from the bitboard,
+	 * visiting only the alive cells, and starts keeping it up to date
+	 */
+	public long hash() {
+		if (!hashing) {
+			hash = 0;
+			for (int r = 0; r < rows; r++) {
+				int rowStart = (r + 1) * stride + 1;
+				
+				for (int w = 0; w < wordsPerRow; w++) {
+					long word = cells[rowStart + w];
+					while (word != 0) {
+						int bit = Long.numberOfTrailingZeros(word);
+						hash ^= CycleDetector.zobrist(Vector2D.pack(originX + w * 64 + bit, originY + r));
+						word &= word - 1;
+					}
+				}
+			}
+			hashing = true;
+		}
+		return hash;
+	}
+	
+	public long population() {
+		long population = 0;
+		for (int i = 0; i < cells.length; i++) {
+			population += Long.bitCount(cells[i]);
+		}
+		return population;
+	}
+	
+	public void clear() {
+		allocate(INITIAL_WORDS, INITIAL_ROWS);
+		originX = -INITIAL_WORDS * 32;
+		originY = -INITIAL_ROWS / 2;
+		generation = 0;
+		hash = 0;
+	}
+	
+	public void setAlive(int x, int y, boolean alive) {
+		if (!contains(x, y)) {
+			if (!alive) {
+				return;	//cells outside of the board are already dead
+			}
+			growToContain(x, y);
+		}
+		
+		int index = indexOf(x, y);
+		long bit = 1L << (x - originX);
+		long word = cells[index];
+		
+		if (alive) {
+			cells[index] |= bit;
+		}
+		else {
+			cells[index] &= ~bit;
+		}
+		if (hashing && cells[index] != word) {
+			hash ^= CycleDetector.zobrist(Vector2D.pack(x, y));
+		}
+	}
+	
+	/*
+	 * grows the board to the size of the pattern in one go
+	 */
+	public void reserve(int width, int height) {
+		if (width > 0 && height > 0) {
+			growToContain(0, 0);
+			growToContain(width - 1, height - 1);
+		}
+	}
+	
+	public boolean isAlive(int x, int y) {
+		return contains(x, y) && (cells[indexOf(x, y)] & (1L << (x - originX))) != 0;
+	}
+	
+	public void setRule(Rule rule) {
+		this.rule = rule;
+	}
+	
+	public Rule getRule() {
+		return rule;
+	}
+	
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public RowKernel getKernel() {
+		return kernel;
+	}
+	
+	/*
+	 * replaces the kernel the rows are stepped with, for instance to compare kernels on the same board
+	 */
+	public void setKernel(RowKernel kernel) {
+		this.kernel = kernel;
+	}
+	
+	public long[] snapshot() {
+		long[] snapshot = new long[(int)population()];
+		int count = 0;
+		
+		for (int r = 0; r < rows; r++) {
+			int rowStart = (r + 1) * stride + 1;
+			
+			for (int w = 0; w < wordsPerRow; w++) {
+				long word = cells[rowStart + w];
+				
+				//visit every set bit of the word
+				while (word != 0) {
+					int bit = Long.numberOfTrailingZeros(word);
+					snapshot[count++] = Vector2D.pack(originX + w * 64 + bit, originY + r);
+					word &= word - 1;
+				}
+			}
+		}
+		return snapshot;
+	}
+	
+	/*
+	 * returns the alive cells inside the rectangle, only visiting the words of the board that overlap it
+	 */
+	public long[] snapshot(int left, int top, int width, int height) {
+		LongList inside = new LongList();
+		int firstRow = (int)Math.max(0, (long)top - originY);
+		int lastRow = (int)Math.min(rows, (long)top + height - originY);
+		int firstWord = (int)Math.max(0, Math.floorDiv((long)left - originX, 64));
+		int lastWord = (int)Math.min(wordsPerRow, Math.floorDiv((long)left + width - originX + 63, 64));
+		
+		for (int r = firstRow; r < lastRow; r++) {
+			int rowStart = (r + 1) * stride + 1;
+			
+			for (int w = firstWord; w < lastWord; w++) {
+				long word = cells[rowStart + w] & columnMask(w, left, width);
+				while (word != 0) {
+					int bit = Long.numberOfTrailingZeros(word);
+					inside.add(Vector2D.pack(originX + w * 64 + bit, originY + r));
+					word &= word - 1;
+				}
+			}
+		}
+		return inside.toArray();
+	}
+	
+	/*
+	 * counts the blocks a word at a time: the bits of a word that fall into one block are counted with a single bitCount
+	 */
+	public void countBlocks(int left, int top, int blockSize, int blockColumns, int blockRows, int[] counts) {
+		Arrays.fill(counts, 0, blockColumns * blockRows, 0);
+		long width = (long)blockSize * blockColumns;
+		long height = (long)blockSize * blockRows;
+		int firstRow = (int)Math.max(0, (long)top - originY);
+		int lastRow = (int)Math.min(rows, (long)top + height - originY);
+		int firstWord = (int)Math.max(0, Math.floorDiv((long)left - originX, 64));
+		int lastWord = (int)Math.min(wordsPerRow, Math.floorDiv((long)left + width - originX + 63, 64));
+		
+		for (int r = firstRow; r < lastRow; r++) {
+			int rowStart = (r + 1) * stride + 1;
+			int blockRowStart = (int)(((long)originY + r - top) / blockSize) * blockColumns;
+			
+			for (int w = firstWord; w < lastWord; w++) {
+				long word = cells[rowStart + w] & columnMask(w, left, width);
+				long wordX = (long)originX + w * 64L;	//plane x coordinate of bit 0 of the word
+				
+				while (word != 0) {
+					long column = (wordX + Long.numberOfTrailingZeros(word) - left) / blockSize;
+					long end = left + (column + 1) * blockSize - wordX;	//first bit of the next block
+					long part = end >= 64 ? word : word & ((1L << end) - 1);
+					counts[blockRowStart + (int)column] += Long.bitCount(part);
+					word &= ~part;
+				}
+			}
+		}
+	}
+	
+	/*
+	 * returns the bits of word w of a row that lie in the columns [left, left + width) of the plane
+	 */
+	private long columnMask(int w, long left, long width) {
+		return columnMask(left - originX - w * 64L, width);
+	}
+	
+	/*
+	 * returns the bits of a word that lie in the columns [left, left + width) of the plane,
+	 * given start, the bit of the word in column left (negative if left lies before the word)
+	 */
+	protected static long columnMask(long start, long width) {
+		long end = start + width;
+		long mask = -1L;
+		
+		if (start > 0) {
+			mask = start >= 64 ? 0 : mask & (-1L << start);
+		}
+		if (end < 64) {
+			mask = end <= 0 ? 0 : mask & (-1L >>> (64 - end));
+		}
+		return mask;
+	}
+	
+	/*
+	 * computes the rows [fromRow, toRow) of the next generation into the next buffer
+	 */
+	protected void stepRows(int fromRow, int toRow) {
+		hash ^= stepTile(fromRow, toRow, 0, wordsPerRow);
+	}
+	
+	/*
+	 * computes the words [fromWord, toWord) of the rows [fromRow, toRow) of the next generation.
+	 * Only reads cells and only writes the given tile of next, so tiles can be computed independently.
+	 * Returns the Zobrist hash of the cells of the tile that flipped while hashing, 0 otherwise
+	 */
+	protected long stepTile(int fromRow, int toRow, int fromWord, int toWord) {
+		long flips = 0;
+		for (int r = fromRow; r < toRow; r++) {
+			int p = (r + 1) * stride + 1 + fromWord;	//index of the first word of the tile in this row
+			kernel.stepRow(cells, next, p, toWord - fromWord, stride, rule);
+			if (hashing) {
+				flips ^= hashFlips(r, fromWord, toWord);	//while the row is still in the cache
+			}
+		}
+		return flips;
+	}
+	
+	/*
+	 * returns the Zobrist hash of the cells in the words [fromWord, toWord) of row r that differ between cells and next
+	 */
+	protected long hashFlips(int r, int fromWord, int toWord) {
+		long flips = 0;
+		int rowStart = (r + 1) * stride + 1;
+		for (int w = fromWord; w < toWord; w++) {
+			long word = cells[rowStart + w] ^ next[rowStart + w];
+			while (word != 0) {
+				int bit = Long.numberOfTrailingZeros(word);
+				flips ^= CycleDetector.zobrist(Vector2D.pack(originX + w * 64 + bit, originY + r));
+				word &= word - 1;
+			}
+		}
+		return flips;
+	}
+	
+	/*
+	 * returns the next generation of the word b, given the words around it.
+	 * a is the word above b and c the word below, the W and E words are their neighbours in the row.
+	 *
+	 * The eight neighbour counts are added with bitwise full adders into the bits s0, s1 and s2
+	 * (the count modulo 8). A cell is alive next generation if it has 3 neighbours,
+	 * or 2 neighbours and is alive now, which is exactly s1 & ~s2 & (s0 | b).
+	 * A count of 8 wraps to 0 and so correctly gives a dead cell.
+	 */
+	protected static long nextWord(long aW, long a, long aE, long bW, long b, long bE, long cW, long c, long cE) {
+		//the neighbours of every bit, lined up with it
+		long nw = (a << 1) | (aW >>> 63);
+		long ne = (a >>> 1) | (aE << 63);
+		long w = (b << 1) | (bW >>> 63);
+		long e = (b >>> 1) | (bE << 63);
+		long sw = (c << 1) | (cW >>> 63);
+		long se = (c >>> 1) | (cE << 63);
+		
+		//add each row into a two bit number
+		long a0 = nw ^ a ^ ne;
+		long a1 = (nw & a) | (ne & (nw ^ a));
+		long b0 = w ^ e;
+		long b1 = w & e;
+		long c0 = sw ^ c ^ se;
+		long c1 = (sw & c) | (se & (sw ^ c));
+		
+		//add the three rows together
+		long s0 = a0 ^ b0 ^ c0;
+		long carry = (a0 & b0) | (c0 & (a0 ^ b0));
+		long u = a1 ^ b1;
+		long v = c1 ^ carry;
+		long s1 = u ^ v;
+		long s2 = (a1 & b1) ^ (c1 & carry) ^ (u & v);
+		
+		return s1 & ~s2 & (s0 | b);
+	}
+	
+	/*
+	 * returns the next generation of the word b under any rule, given as the birth and survival bits of a Rule.
+	 * The neighbour counts are added into four bits s0..s3 (0 to 8, so 8 no longer wraps to 0),
+	 * then for every count the rule uses, the cells with exactly that count are selected by matching
+	 * the four bits and are made alive if they are dead and the count is a birth, or alive and it is a survival
+	 */
+	protected static long nextWord(long aW, long a, long aE, long bW, long b, long bE, long cW, long c, long cE, int birth, int survival) {
+		//the neighbours of every bit, lined up with it
+		long nw = (a << 1) | (aW >>> 63);
+		long ne = (a >>> 1) | (aE << 63);
+		long w = (b << 1) | (bW >>> 63);
+		long e = (b >>> 1) | (bE << 63);
+		long sw = (c << 1) | (cW >>> 63);
+		long se = (c >>> 1) | (cE << 63);
+		
+		//add each row into a two bit number
+		long a0 = nw ^ a ^ ne;
+		long a1 = (nw & a) | (ne & (nw ^ a));
+		long b0 = w ^ e;
+		long b1 = w & e;
+		long c0 = sw ^ c ^ se;
+		long c1 = (sw & c) | (se & (sw ^ c));
+		
+		//add the three rows together; at most two of the carries into the fours are set
+		long s0 = a0 ^ b0 ^ c0;
+		long carry = (a0 & b0) | (c0 & (a0 ^ b0));
+		long u = a1 ^ b1;
+		long v = c1 ^ carry;
+		long s1 = u ^ v;
+		long p = a1 & b1;
+		long q = c1 & carry;
+		long r = u & v;
+		long s2 = p ^ q ^ r;
+		long s3 = (p & q) | (r & (p | q));
+		
+		long result = 0;
+		for (int n = 0; n <= 8; n++) {
+			boolean born = (birth & (1 << n)) != 0;
+			boolean survives = (survival & (1 << n)) != 0;
+			if (!born && !survives) {
+				continue;
+			}
+			
+			long count = ((n & 1) != 0 ? s0 : ~s0) & ((n & 2) != 0 ? s1 : ~s1) & ((n & 4) != 0 ? s2 : ~s2) & ((n & 8) != 0 ? s3 : ~s3);
+			result |= count & (born ? (survives ? -1L : ~b) : b);
+		}
+		return result;
+	}
+	
+	/*
+	 * swaps the current and next generation buffers
+	 */
+	protected void swapBuffers() {
+		long[] temp = cells;
+		cells = next;
+		next = temp;
+	}
+	
+	/*
+	 * grows the board on every side where an alive cell touches the edge,
+	 * so that no birth in the next generation can fall outside of the board
+	 */
+	protected void growToFitEdges() {
+		boolean top = false;
+		boolean bottom = false;
+		boolean left = false;
+		boolean right = false;
+		
+		int topStart = stride + 1;
+		int bottomStart = rows * stride + 1;
+		for (int w = 0; w < wordsPerRow; w++) {
+			top |= cells[topStart + w] != 0;
+			bottom |= cells[bottomStart + w] != 0;
+		}
+		for (int r = 0; r < rows; r++) {
+			int rowStart = (r + 1) * stride + 1;
+			left |= (cells[rowStart] & 1L) != 0;
+			right |= (cells[rowStart + wordsPerRow - 1] & (1L << 63)) != 0;
+		}
+		
+		if (top || bottom || left || right) {
+			int growWords = Math.max(1, wordsPerRow / 2);
+			int growRows = Math.max(INITIAL_ROWS, rows / 2);
+			grow(left ? growWords : 0, right ? growWords : 0, top ? growRows : 0, bottom ? growRows : 0);
+		}
+	}
+	
+	/*
+	 * grows the board until the cell (x, y) is on it
+	 */
+	protected void growToContain(int x, int y) {
+		while (!contains(x, y)) {
+			int growWords = Math.max(1, wordsPerRow / 2);
+			int growRows = Math.max(INITIAL_ROWS, rows / 2);
+			grow(	x < originX ? growWords : 0, x >= originX + wordsPerRow * 64 ? growWords : 0,
+					y < originY ? growRows : 0, y >= originY + rows ? growRows : 0);
+		}
+	}
+	
+	/*
+	 * adds the given number of words (to the left and right) and rows (above and below) to the board
+	 */
+	protected void grow(int wordsLeft, int wordsRight, int rowsTop, int rowsBottom) {
+		long[] oldCells = cells;
+		int oldStride = stride;
+		int oldWords = wordsPerRow;
+		int oldRows = rows;
+		
+		allocate(oldWords + wordsLeft + wordsRight, oldRows + rowsTop + rowsBottom);
+		for (int r = 0; r < oldRows; r++) {
+			System.arraycopy(oldCells, (r + 1) * oldStride + 1, cells, (r + 1 + rowsTop) * stride + 1 + wordsLeft, oldWords);
+		}
+		
+		originX -= wordsLeft * 64;
+		originY -= rowsTop;
+	}
+	
+	/*
+	 * creates empty buffers for a board of the given size
+	 */
+	protected void allocate(int wordsPerRow, int rows) {
+		this.wordsPerRow = wordsPerRow;
+		this.rows = rows;
+		this.stride = wordsPerRow + 2;
+		this.cells = new long[(rows + 2) * stride];
+		this.next = new long[(rows + 2) * stride];
+	}
+	
+	/*
+	 * returns whether the cell (x, y) is on the board
+	 */
+	protected boolean contains(int x, int y) {
+		long column = (long)x - originX;
+		long row = (long)y - originY;
+		return column >= 0 && column < wordsPerRow * 64L && row >= 0 && row < rows;
+	}
+	
+	/*
+	 * returns the index in cells of the word holding the cell (x, y). The cell must be on the board
+	 */
+	protected int indexOf(int x, int y) {
+		return (y - originY + 1) * stride + 1 + ((x - originX) >>> 6);
+	}
+	
+	//getters
+	public int getBoardWidth() {
+		return wordsPerRow * 64;
+	}
+	
+	public int getBoardHeight() {
+		return rows;
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * The LifeEngine backends that can be selected from the GameHud or the command line
+ */
+
+public enum EngineType {
+	SPARSE("sparse", 10) {
+		public LifeEngine create() {
+			return new SparseLifeEngine();
+		}
+	},
+	DENSE("dense bitboard", 10) {
+		public LifeEngine create() {
+			return new DenseLifeEngine();
+		}
+	},
+	PARALLEL("parallel bitboard", 10) {
+		public LifeEngine create() {
+			return new ParallelLifeEngine();
+		}
+	},
+	TEMPORAL("temporal blocking", 10) {
+		public LifeEngine create() {
+			return new TemporalLifeEngine();
+		}
+	},
+	HASHLIFE("hashlife", 30) {
+		public LifeEngine create() {
+			return new HashLifeEngine();
+		}
+	},
+	TILES("64x64 tiles", 10) {
+		public LifeEngine create() {
+			return new TileLifeEngine();
+		}
+	},
+	TORUS("torus", 10) {
+		public LifeEngine create() {
+			return new BoundedLifeEngine(Topology.TORUS);
+		}
+	},
+	BOUNDED("bounded box", 10) {
+		public LifeEngine create() {
+			return new BoundedLifeEngine(Topology.BOUNDED);
+		}
+	},
+	OFF_HEAP("off-heap torus", 10) {
+		public LifeEngine create() {
+			return new OffHeapLifeEngine(	Integer.getInteger("life.board.width", BoundedLifeEngine.DEFAULT_SIZE),
+											Integer.getInteger("life.board.height", BoundedLifeEngine.DEFAULT_SIZE));
+		}
+	};
+	
+	//variables
+	private final String label;			//name shown in the hud
+	private final int maxStepPower;		//log2 of the most generations the hud lets the engine step per tick
+	
+	/*
+	 * maxStepPower bounds the step size slider: only hashlife can jump 2^30 generations in about the time
+	 * of one, every other engine would hold up the game thread (and so pausing and switching engines) for minutes
+	 */
+	EngineType(String label, int maxStepPower) {
+		this.label = label;
+		this.maxStepPower = maxStepPower;
+	}
+	
+	/*
+	 * creates a new, empty engine of this type
+	 */
+	public abstract LifeEngine create();
+	
+	public String toString() {
+		return label;
+	}
+	
+	//getters
+	public int getMaxStepPower() {
+		return maxStepPower;
+	}
+	
+	public long getMaxStepSize() {
+		return 1L << maxStepPower;
+	}
+}
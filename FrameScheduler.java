@@ -0,0 +1,157 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * FrameScheduler paces the game loop. Generations and rendered frames run on separate clocks:
+ * the generation rate can be anything from 1 to thousands of generations per second (or unlimited),
+ * while frames are rendered at a fixed rate. Every deadline is the previous deadline plus one period,
+ * measured with System.nanoTime(), so the pace never drifts however long each frame takes.
+ */
+
+public class FrameScheduler {
+	//variables
+	private final long renderPeriod;		//nanoseconds between rendered frames
+	private volatile double generationRate;	//generations per second when not unlimited
+	private volatile boolean unlimited;		//run as many generations as possible between frames
+	private volatile boolean rateChanged;	//the rate was changed, restart the generation clock
+	private long nextGenerationTime;		//time the next generation is due
+	private long nextRenderTime;			//time the next frame is due
+	private volatile long waits;			//number of times waitForNextEvent() parked the thread
+	
+	/*
+	 * constructor sets the generation rate and the render rate, both per second
+	 */
+	public FrameScheduler(double generationRate, double renderRate) {
+		this.generationRate = generationRate;
+		this.renderPeriod = (long)(1e9 / renderRate);
+		reset(System.nanoTime());
+	}
+	
+	/*
+	 * starts both clocks at the given time
+	 */
+	public void reset(long now) {
+		nextGenerationTime = now;
+		nextRenderTime = now;
+		rateChanged = false;
+	}
+	
+	/*
+	 * returns how many generations are due at the given time and moves the generation clock past them.
+	 * At most one frame's worth of generations is returned; if the loop has fallen further behind
+	 * the missed generations are dropped rather than caught up, so a slow pattern cannot make the loop spiral
+	 */
+	public long generationsDue(long now) {
+		long period = getGenerationPeriod();
+		
+		if (rateChanged) {
+			rateChanged = false;
+			nextGenerationTime = now;
+		}
+		if (now < nextGenerationTime) {
+			return 0;
+		}
+		
+		long due = (now - nextGenerationTime) / period + 1;
+		long maxDue = Math.max(1, renderPeriod / period);
+		if (due > maxDue) {
+			due = maxDue;
+			nextGenerationTime = now + period;
+		}
+		else {
+			nextGenerationTime += due * period;
+		}
+		return due;
+	}
+	
+	/*
+	 * returns whether a frame is due at the given time, and if so moves the render clock to the next frame
+	 */
+	public boolean renderDue(long now) {
+		if (now < nextRenderTime) {
+			return false;
+		}
+		
+		nextRenderTime += renderPeriod;
+		if (nextRenderTime <= now) {
+			nextRenderTime = now + renderPeriod;	//more than a frame behind, do not try to catch up
+		}
+		return true;
+	}
+	
+	/*
+	 * returns the time by which generations stepped at the given time must be finished: the upcoming
+	 * frame deadline, or the given time if a frame is already due, so a due frame waits for one batch at most
+	 */
+	public long getFrameEnd(long now) {
+		return Math.max(now, nextRenderTime);
+	}
+	
+	/*
+	 * parks the thread until the next generation or frame is due.
+	 * When unlimited, generations are always due, so unless the game is halted it returns at once
+	 * and the loop keeps stepping until the next frame
+	 */
+	public void waitForNextEvent(boolean halted) {
+		if (unlimited && !halted) {
+			return;
+		}
+		
+		long deadline = nextRenderTime;
+		if (!unlimited && !halted && !rateChanged) {
+			deadline = Math.min(deadline, nextGenerationTime);
+		}
+		
+		if (deadline - System.nanoTime() > 0) {
+			waits++;	//only the game thread waits
+		}
+		
+		//parkNanos may return early, so park again until the deadline has passed
+		for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+	
+	/*
+	 * returns the number of nanoseconds between two generations
+	 */
+	public long getGenerationPeriod() {
+		return Math.max(1, (long)(1e9 / generationRate));
+	}
+	
+	//getters and setters
+	public double getGenerationRate() {
+		return generationRate;
+	}
+	
+	public void setGenerationRate(double generationRate) {
+		this.generationRate = generationRate;
+		this.rateChanged = true;
+	}
+	
+	public boolean isUnlimited() {
+		return unlimited;
+	}
+	
+	public void setUnlimited(boolean unlimited) {
+		this.unlimited = unlimited;
+		this.rateChanged = true;
+	}
+	
+	public long getNextRenderTime() {
+		return nextRenderTime;
+	}
+	
+	public long getRenderPeriod() {
+		return renderPeriod;
+	}
+	
+	/*
+	 * returns the number of times waitForNextEvent() has parked the thread
+	 */
+	public long getWaits() {
+		return waits;
+	}
+}
@@ -1,28 +1,43 @@
+import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JSlider;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 /**
  * @version 4/05/2020
  * @author Django Scrivener (463015)
  * 
- * GameHud implements the on-screen controls (fps, load, save etc.)
+ * GameHud implements the on-screen controls (speed, load, save etc.)
  * Updates parameters or flags in main loop
+ * The controls run on the Swing thread; requests for the game thread are handed over
+ * through atomic references which the game thread takes (and so clears) once per frame
  */
 
 public class GameHud {
+	//constants
+	private static final int SPEED_STEPS = 20;	//positions of the speed slider per factor of ten
+	private static final double ZOOM_STEP = 1.25;	//zoom factor of one notch of the mouse wheel
+	
 	//variables
 	GameManager gm;							//the game manager, used so the buttons can update parameters
 	
-	private boolean saveStateFlag;			//flag to tell main thread to save the state
-	private boolean loadStateFlag;			//flag to tell main thread to load a new state
-	private String loadStateDirectory;		//directory location of state to be loaded
-	private String saveStateDirectory;		//directory location of state to be loaded
+	private final AtomicReference<String> saveStateRequest = new AtomicReference<String>();			//directory location of state to be saved, null if none
+	private final AtomicReference<String> loadStateRequest = new AtomicReference<String>();			//directory location of state to be loaded, null if none
+	private final AtomicReference<EngineType> engineChangeRequest = new AtomicReference<EngineType>();	//engine to switch to, null if none
+	private final AtomicReference<Rule> ruleChangeRequest = new AtomicReference<Rule>();				//rule to switch to, null if none
+	private JSlider sliderStepSize;			//generations per tick, its range depends on the selected engine
 	
 	public GameHud(GameManager gm) {
 		this.gm = gm;
@@ -30,7 +45,14 @@ public class GameHud {
 		//load the on-screen controls
 		addLoadButton();
 		addSaveButton();
-		addFpsSlider();
+		addSpeedSlider();
+		addMaxSpeedToggle();
+		addEngineSelector();
+		addRuleSelector();
+		addStepSizeSlider();
+		addMetricsToggle();
+		addCycleActionSelector();
+		addViewportControls();
 	}
 	
 	/*
@@ -45,11 +67,11 @@ public class GameHud {
 				JFileChooser fc = new JFileChooser();
 				fc.setCurrentDirectory(new java.io.File("./states"));
 				fc.setDialogTitle("save state");
+				addFormatFilters(fc);
 				int result = fc.showSaveDialog(buttonSaveState);
 				
 				if (result == JFileChooser.APPROVE_OPTION) {
-					saveStateDirectory = fc.getSelectedFile().getPath(); 
-					saveStateFlag = true;
+					saveStateRequest.set(withFormatExtension(fc));
 				}
 				else if (result == JFileChooser.CANCEL_OPTION){
 					System.out.println("failed to save state: cancelled by user");
@@ -73,11 +95,11 @@ public class GameHud {
 				JFileChooser fc = new JFileChooser();
 				fc.setCurrentDirectory(new java.io.File("./states"));
 				fc.setDialogTitle("load state");
+				addFormatFilters(fc);
 				int result = fc.showOpenDialog(buttonLoadState);
 				
 				if (result == JFileChooser.APPROVE_OPTION) {
-					loadStateDirectory = fc.getSelectedFile().getPath(); 
-					loadStateFlag = true;
+					requestLoadState(fc.getSelectedFile().getPath());
 				}
 				else if (result == JFileChooser.CANCEL_OPTION){
 					System.out.println("failed to load state: cancelled by user");
@@ -90,50 +112,219 @@ public class GameHud {
 	}
 	
 	/*
-	 * Adds a slider to control the FPS
+	 * Adds a file filter for every state format to the file chooser, with .state selected
+	 */
+	private void addFormatFilters(JFileChooser fc) {
+		for (StateFormat format : StateFormat.values()) {
+			FileNameExtensionFilter filter = new FileNameExtensionFilter(format.getDescription(), format.getExtension());
+			fc.addChoosableFileFilter(filter);
+			if (format == StateFormat.TEXT) {
+				fc.setFileFilter(filter);
+			}
+		}
+	}
+	
+	/*
+	 * returns the path chosen in the file chooser. If the name has no state extension,
+	 * the extension of the selected filter is added so the state is saved in that format
+	 */
+	private String withFormatExtension(JFileChooser fc) {
+		String path = fc.getSelectedFile().getPath();
+		
+		for (StateFormat format : StateFormat.values()) {
+			if (path.toLowerCase().endsWith("." + format.getExtension())) {
+				return path;
+			}
+		}
+		if (fc.getFileFilter() instanceof FileNameExtensionFilter) {
+			return path + "." + ((FileNameExtensionFilter)fc.getFileFilter()).getExtensions()[0];
+		}
+		return path;
+	}
+	
+	/*
+	 * Adds a slider to control how many ticks (of stepSize generations) run per second.
+	 * The slider is logarithmic: every SPEED_STEPS positions multiply the rate by ten, from 1 up to 10000
+	 */
+	public void addSpeedSlider() {
+		JSlider sliderSpeed = new JSlider(0, 4 * SPEED_STEPS, (int)Math.round(SPEED_STEPS * Math.log10(gm.getGenerationRate())));
+		sliderSpeed.setToolTipText("ticks per second: " + (long)gm.getGenerationRate());
+		gm.add(sliderSpeed);
+		
+		sliderSpeed.addChangeListener(new ChangeListener() {
+            public void stateChanged(ChangeEvent e) {
+            	double rate = Math.round(Math.pow(10, ((JSlider)e.getSource()).getValue() / (double)SPEED_STEPS));
+                gm.setGenerationRate(rate);
+                sliderSpeed.setToolTipText("ticks per second: " + (long)rate);
+            }
+        });
+	}
+	
+	/*
+	 * Adds a check box which runs the game as fast as possible, ignoring the speed slider
+	 */
+	public void addMaxSpeedToggle() {
+		JCheckBox checkMaxSpeed = new JCheckBox("max", gm.isUnlimited());
+		checkMaxSpeed.setToolTipText("run as many generations as possible between frames");
+		gm.add(checkMaxSpeed);
+		
+		checkMaxSpeed.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				gm.setUnlimited(checkMaxSpeed.isSelected());
+			}
+		});
+	}
+
+	/*
+	 * Adds a drop down list to choose the engine backend
+	 */
+	public void addEngineSelector() {
+		JComboBox<EngineType> comboEngineSelector = new JComboBox<EngineType>(EngineType.values());
+		gm.add(comboEngineSelector);
+		
+		comboEngineSelector.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				EngineType type = (EngineType)comboEngineSelector.getSelectedItem();
+				requestEngineChange(type);
+				sliderStepSize.setMaximum(type.getMaxStepPower());	//also lowers the step size if it is too big for the engine
+			}
+		});
+	}
+
+	/*
+	 * Adds an editable drop down list to choose the rule, either one of the presets or any rule typed in B/S notation
 	 */
-	public void addFpsSlider() {
-		JSlider sliderFpsSelector = new JSlider(1, 50, (int)gm.getFPS());
-		gm.add(sliderFpsSelector);
+	public void addRuleSelector() {
+		JComboBox<String> comboRuleSelector = new JComboBox<String>(Rule.PRESETS);
+		comboRuleSelector.setEditable(true);
+		gm.add(comboRuleSelector);
 		
-		sliderFpsSelector.addChangeListener(new ChangeListener() {
+		comboRuleSelector.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				try {
+					ruleChangeRequest.set(Rule.parse((String)comboRuleSelector.getSelectedItem()));
+				} catch (IllegalArgumentException ex) {
+					System.out.println(ex.getMessage());
+				}
+			}
+		});
+	}
+
+	/*
+	 * Adds a slider to control how many generations pass every tick.
+	 * The slider selects a power of two, so with the hashlife engine very long runs can be watched.
+	 * It goes up to the largest step size of the selected engine (see EngineType.getMaxStepPower)
+	 */
+	public void addStepSizeSlider() {
+		sliderStepSize = new JSlider(0, gm.getEngineType().getMaxStepPower(), 0);
+		sliderStepSize.setToolTipText("generations per tick: 2^0");
+		gm.add(sliderStepSize);
+		
+		sliderStepSize.addChangeListener(new ChangeListener() {
             public void stateChanged(ChangeEvent e) {
-                gm.setFPS(((JSlider)e.getSource()).getValue());
+            	int power = ((JSlider)e.getSource()).getValue();
+                gm.setStepSize(1L << power);
+                sliderStepSize.setToolTipText("generations per tick: 2^" + power);
             }
         });
 	}
 
-	//getters and setters
-	public boolean isSaveStateFlag() {
-		return saveStateFlag;
+	/*
+	 * Adds a check box which shows the speed of the simulation and where the time goes
+	 */
+	public void addMetricsToggle() {
+		JCheckBox checkMetrics = new JCheckBox("stats", gm.isShowMetrics());
+		gm.add(checkMetrics);
+		
+		checkMetrics.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				gm.setShowMetrics(checkMetrics.isSelected());
+				gm.repaint();
+			}
+		});
 	}
 
-	public void setSaveStateFlag(boolean saveStateFlag) {
-		this.saveStateFlag = saveStateFlag;
+	/*
+	 * Adds a drop down list to choose what happens once the pattern repeats
+	 */
+	public void addCycleActionSelector() {
+		JComboBox<CycleDetector.Action> comboCycleAction = new JComboBox<CycleDetector.Action>(CycleDetector.Action.values());
+		comboCycleAction.setSelectedItem(gm.getCycleAction());
+		comboCycleAction.setToolTipText("when the pattern repeats");
+		gm.add(comboCycleAction);
+		
+		comboCycleAction.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				gm.setCycleAction((CycleDetector.Action)comboCycleAction.getSelectedItem());
+			}
+		});
+	}
+	
+	/*
+	 * Adds panning (dragging with the mouse) and zooming (the mouse wheel, around the pointer) of the view,
+	 * and a button to go back to the initial view
+	 */
+	public void addViewportControls() {
+		MouseAdapter mouse = new MouseAdapter() {
+			private Point last;	//position of the mouse at the last drag event, null if not dragging
+			
+			public void mousePressed(MouseEvent e) {
+				last = e.getPoint();
+			}
+			
+			public void mouseReleased(MouseEvent e) {
+				last = null;
+			}
+			
+			public void mouseDragged(MouseEvent e) {
+				if (last != null) {
+					gm.setViewport(gm.getViewport().pan(e.getX() - last.x, e.getY() - last.y));
+					last = e.getPoint();
+				}
+			}
+			
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				double factor = Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation());
+				gm.setViewport(gm.getViewport().zoom(factor, e.getX(), e.getY(), gm.getWidth(), gm.getHeight()));
+			}
+		};
+		gm.addMouseListener(mouse);
+		gm.addMouseMotionListener(mouse);
+		gm.addMouseWheelListener(mouse);
+		
+		JButton buttonResetView = new JButton("reset view");
+		gm.add(buttonResetView);
+		
+		buttonResetView.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				gm.setViewport(new Viewport(0, 0, gm.getGRID_SIZE()));
+			}
+		});
 	}
 
-	public boolean isLoadStateFlag() {
-		return loadStateFlag;
+	//requests from the controls, also made by tests without clicking through a dialog
+	public void requestLoadState(String fileDirectory) {
+		loadStateRequest.set(fileDirectory);
 	}
 
-	public void setLoadStateFlag(boolean loadStateFlag) {
-		this.loadStateFlag = loadStateFlag;
+	public void requestEngineChange(EngineType type) {
+		engineChangeRequest.set(type);
 	}
 
-	public String getLoadStateDirectory() {
-		return loadStateDirectory;
+	//requests for the game thread. Each returns null if nothing was requested since the last call
+	public String takeSaveStateRequest() {
+		return saveStateRequest.getAndSet(null);
 	}
 
-	public void setLoadStateDirectory(String loadStateDirectory) {
-		this.loadStateDirectory = loadStateDirectory;
+	public String takeLoadStateRequest() {
+		return loadStateRequest.getAndSet(null);
 	}
 
-	public String getSaveStateDirectory() {
-		return saveStateDirectory;
+	public EngineType takeEngineChangeRequest() {
+		return engineChangeRequest.getAndSet(null);
 	}
 
-	public void setSaveStateDirectory(String saveStateDirectory) {
-		this.saveStateDirectory = saveStateDirectory;
+	public Rule takeRuleChangeRequest() {
+		return ruleChangeRequest.getAndSet(null);
 	}
-	
-}
\ No newline at end of file
+}
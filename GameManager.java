@@ -1,15 +1,11 @@
+import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.Graphics;
-import java.awt.Rectangle;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.JPanel;
 
@@ -20,6 +16,12 @@ import javax.swing.JPanel;
  * Game manager class is a JPanel attached to the main frame
  * This class implements the primary game loop
  * This class controls most aspects of the game
+ * The simulation itself is done by a headless LifeEngine; this class only drives and draws it
+ * Saving and loading run on a separate I/O thread so the game loop never waits for a file
+ * The loop is paced by a FrameScheduler: generations run at their own rate and frames are drawn at RENDER_RATE
+ * How fast it runs is measured by SimulationMetrics, shown in an overlay and published over JMX
+ * A CycleDetector notices when the pattern has settled, after which the game can halt or fast forward
+ * The view can be panned and zoomed (see Viewport); only what is on screen is taken from the engine and drawn
  */
 
 public class GameManager extends JPanel implements Runnable{
@@ -28,24 +30,53 @@ public class GameManager extends JPanel implements Runnable{
 	
 	private final int WIDTH = 1000;	//window width
 	private final int HEIGHT = 600;	//window height
+	private final int GRID_SIZE = 5;	//width and height of the grid at the initial zoom. (Also width and height of entity)
+	private final int RENDER_RATE = 60;	//frames drawn per second
+	private final CellRenderer renderer = new CellRenderer(Color.darkGray);	//draws the entities into a cached image
 	
 	//variables
 	private Thread thread;					//separate game thread
-	private boolean isRunning;				//flag to determine whether the game loop is running
-	private long startTime;					//system time at beginning of frame. used to control FPS
-	private long FPS;				 		//frames per seconds (how quickly the state updates)
-	private GameHud hud;					//hud handles the controls for fps, load, save etc.
-	private ArrayList<Entity> entities;		//list contains all the Conway entities
+	private volatile boolean isRunning;		//flag to determine whether the game loop is running
+	private final FrameScheduler scheduler;	//paces the generations and the rendered frames
+	private volatile long stepSize;			//number of generations the engine advances every tick of the scheduler
+	private long batchSize;					//ticks stepped at a time when running as fast as possible, tuned to the frame period
+	private boolean unpublished;			//whether the engine has changed since the last snapshot was published
+	private final SimulationMetrics metrics;	//speed of the simulation and time spent in each phase
+	private volatile boolean showMetrics;	//whether the metrics overlay is drawn
+	private final CycleDetector cycles = new CycleDetector();	//finds when the pattern repeats. Only touched by the game thread
+	private volatile CycleDetector.Action cycleAction = CycleDetector.Action.CONTINUE;	//what to do once the pattern repeats
+	private GameHud hud;					//hud handles the controls for speed, load, save etc.
+	private LifeEngine engine;				//the simulation which holds all the Conway entities. Only touched by the game thread
+	private volatile CellSnapshot snapshot;	//alive entities of the latest generation, published by the game thread for painting
+	private volatile Viewport viewport;		//the part of the plane on screen, replaced by the hud when panning and zooming
+	private EngineType engineType;			//type of the current engine, used for loaded states. Only touched by the game thread
+	private final ExecutorService ioExecutor;	//thread that saves and loads state files
+	private final AtomicReference<LoadedState> loadedState = new AtomicReference<LoadedState>();	//state loaded by the I/O thread, waiting to be swapped in
 
 	/*
 	 * constructor handles all init code for the game manager
 	 */
 	public GameManager() {
 		this.setPreferredSize(new Dimension(WIDTH, HEIGHT));	//set the size of the canvas to draw on
-		entities = new ArrayList<Entity>();						//initialise the entities,
+		engineType = EngineType.SPARSE;							//initialise the simulation
+		engine = engineType.create();
+		metrics = new SimulationMetrics();						//measure the simulation, also over JMX
+		metrics.register("game");
+		engine.setMetrics(metrics);
+		viewport = new Viewport(0, 0, GRID_SIZE);				//(0, 0) on the grid at the centre of the screen
+		snapshot = CellSnapshot.of(engine, viewport, WIDTH, HEIGHT);	//nothing to draw yet
 		
-		FPS = 2;												//set the initial FPS
+		scheduler = new FrameScheduler(2, RENDER_RATE);			//set the initial generation rate
+		stepSize = 1;											//advance one generation per tick
+		batchSize = 1;
 		hud = new GameHud(this);								//create heads up display. Handled by the GameHud class
+		ioExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread ioThread = new Thread(r, "state file I/O");
+				ioThread.setDaemon(true);						//pending saves must not keep the program open
+				return ioThread;
+			}
+		});
 		isRunning = true;										//set whether the game loop is running
 		
 		thread = new Thread(this);								//create a new thread for the game loop to run in
@@ -57,285 +88,275 @@ public class GameManager extends JPanel implements Runnable{
 	 * contains the game loop
 	 */
 	public void run() {
+		scheduler.reset(System.nanoTime());
+		unpublished = true;
+		
 		//the game loop, runs while the isRunning flag is true
 		while (isRunning) {
-			//update the start time to calculate the frame period; must go at start of loop
-			startTime = System.nanoTime();
-			
 			//perform loop operations
-			repaint();
-			resetEntityNeighbours();
-			updateNeighbours();
-			updateEntities();
-			cleanUpEntities();
+			//swap in a state loaded in the background (this is a generation boundary)
+			LoadedState loaded = loadedState.getAndSet(null);
+			if (loaded != null) {
+				retire(engine);
+				engine = loaded.onEngine(engineType);
+				engine.setMetrics(metrics);
+				cycles.reset();
+				unpublished = true;
+			}
 			
 			//update GUI flags
-			if (hud.isSaveStateFlag()) {
-				saveStateToFile(hud.getSaveStateDirectory());
-				hud.setSaveStateFlag(false);
+			EngineType engineChange = hud.takeEngineChangeRequest();
+			if (engineChange != null) {
+				changeEngine(engineChange);
+				cycles.reset();
+				unpublished = true;
+			}
+			Rule ruleChange = hud.takeRuleChangeRequest();
+			if (ruleChange != null) {
+				changeRule(ruleChange);
+				cycles.reset();
+			}
+			
+			//advance the game by however many generations are due
+			if (scheduler.isUnlimited()) {
+				stepBatches(Long.MAX_VALUE);
 			}
-			if (hud.isLoadStateFlag()) {
-				loadStateFromFile(hud.getLoadStateDirectory());
-				hud.setLoadStateFlag(false);
+			else {
+				stepBatches(scheduler.generationsDue(System.nanoTime()));
 			}
 			
-			//limit the FPS; must go at end of loop
-			enforceFps();
+			if (scheduler.renderDue(System.nanoTime())) {
+				//hand the finished generation to the paint thread, only if there is a new one or the view moved
+				if (unpublished || !isViewPublished()) {
+					publishSnapshot();
+					repaint();
+					unpublished = false;
+				}
+				else if (showMetrics) {
+					repaint();	//keep the overlay up to date
+				}
+				metrics.sample(engine);
+				
+				//saving only needs a copy of the cells, loading happens on the side
+				String saveDirectory = hud.takeSaveStateRequest();
+				if (saveDirectory != null) {
+					saveStateToFile(saveDirectory);
+				}
+				String loadDirectory = hud.takeLoadStateRequest();
+				if (loadDirectory != null) {
+					loadStateFromFile(loadDirectory);
+				}
+			}
+			
+			//wait for the next generation or frame; must go at end of loop
+			scheduler.waitForNextEvent(isHalted());
 		}
 	}
 	
 	/*
 	 * runs in separate thread outside of game loop
-	 * draws to the screen using the Graphics entity
+	 * draws to the screen using the Graphics entity.
+	 * The hud controls are painted on top afterwards
 	 */
-	public void paint(Graphics g) {
-		super.paint(g);
+	protected void paintComponent(Graphics g) {
+		long start = System.nanoTime();
+		super.paintComponent(g);
 		drawAllEntities(g);
+		metrics.frameRendered(System.nanoTime() - start);
+		
+		if (showMetrics) {
+			drawMetrics(g);
+		}
 	}
 	
 	/*
-	 * Enforces the FPS limit of the screen by sleeping the thread.
+	 * steps the given number of ticks, stopping early once the next frame is due.
+	 * The ticks are stepped in batches with one engine.step(n) call each, so engines that
+	 * can jump ahead (hashlife) get large jumps and engines that step several generations per
+	 * pass over memory (temporal blocking) get whole passes. The batch doubles while a batch takes less than
+	 * a quarter of a frame and halves when it takes more than half, so frames keep being drawn
+	 * whether a generation costs a microsecond or a millisecond. Ticks left over when the frame
+	 * is due are dropped: the game runs slower than asked rather than falling further behind.
+	 *
+	 * The hash of the universe is checked after every batch. Once it repeats, the game either
+	 * keeps stepping, halts, or fast forwards by only stepping the phase of the cycle
 	 */
-	public void enforceFps() {
-		//variables
-		long elapsedTime;
-		long waitTime;
+	private void stepBatches(long ticks) {
+		long frameEnd = scheduler.getFrameEnd(System.nanoTime());
+		long target = scheduler.getRenderPeriod() / 4;	//nanoseconds a batch should take
 		
-		if (FPS!=0) {
-			long framePeriod = 1000/FPS; 	//milliseconds per frame
-			elapsedTime = System.nanoTime() - startTime;
-			
-			waitTime = framePeriod - elapsedTime / 1000000; 	/*time to wait between frames in milliseconds
-																to ensure that the FPS is limited.*/
+		if (isHalted()) {
+			return;
+		}
+		
+		while (ticks > 0 && isRunning) {
+			long batch = Math.min(ticks, batchSize);
+			long batchStart = System.nanoTime();
+			if (cycleAction == CycleDetector.Action.FAST_FORWARD) {
+				cycles.step(engine, batch * stepSize);
+			}
+			else {
+				engine.step(batch * stepSize);
+			}
+			long batchEnd = System.nanoTime();
+			ticks -= batch;
+			unpublished = true;
 			
-			if (waitTime <= 0) {
-				waitTime = 5;
+			if (!cycles.isCycleFound() && cycles.observe(engine) != 0) {
+				System.out.println("pattern repeats every " + cycles.getPeriod() + " generations from generation " + cycles.getCycleStart());
+				if (cycleAction == CycleDetector.Action.HALT) {
+					break;
+				}
 			}
 			
-			try {
-				Thread.sleep(waitTime);	//pause the thread the required amount of time
-			} catch(Exception e) {
-				e.printStackTrace();
+			if (batchEnd - batchStart < target && batch == batchSize && batchSize < (1L << 20)) {
+				batchSize *= 2;
+			}
+			else if (batchEnd - batchStart > 2 * target && batchSize > 1) {
+				batchSize /= 2;
 			}
-		}
-	}
-	
-	/*
-	 * Loads state from a file
-	 */
-	public void loadStateFromFile(String fileDirectory) 
-	{
-		//variables
-	    List<String> state = Collections.emptyList(); //Create a list of strings to store the input from the .state file
-	    
-	    entities.clear();	//clear the current entities so that the loaded state has a clear slate
-	    
-	    //load the list from the map file.
-	    try { 
-	      state = Files.readAllLines(Paths.get(fileDirectory), StandardCharsets.UTF_8); 
-	    } catch (IOException e) {
-	      e.printStackTrace(); 
-	    }
-	    
-	    //iterate through each element in the list
-	    Iterator<String> itr = state.iterator(); 	//to iterate through list
-	    String currentItr;						 	//the current row
-	    
-		for (int i = 0; itr.hasNext(); i++) {
-			currentItr = itr.next(); //retrieves the next line from the list
 			
-			for (int j = 0; j < currentItr.length(); j++) {
-				if (currentItr.charAt(j) == '#') {
-					//if the character read from the file is '#' this indicates that there is an entity in that position
-					addEntity(new Vector2D(j, i), true); //add an alive Conway entity at row j and column i.
-				}
+			if (batchEnd >= frameEnd) {
+				break;
 			}
 		}
-		
-		System.out.println("successfully loaded state from: " + fileDirectory);	//provide confirmation message
 	}
 	
 	/*
-	 * Saves the state of the game to a .txt file
+	 * returns whether stepping has stopped because the pattern repeats and the game halts on a cycle
 	 */
-	public void saveStateToFile(String fileDirectory) {
-		//variables
-		Rectangle entityBounds = getEntityBounds(); 		//determine the bounds of the save state file
-	    ArrayList<String> state = new ArrayList<String>();	//create multidimensional array of characters
-	    
-	    //fill up the state list with '0' chars, the dimensions of the bounds
-	    //'0' indicates a dead entity
-	    String emptyRow = new String();
-	    for (int i = 0; i<=entityBounds.width; i++) {
-	    	emptyRow = emptyRow + "0";
-	    }
-	    for (int i = 0; i<=entityBounds.height; i++) {
-	    	state.add(emptyRow);
-	    }
-	    
-	    //change the character from a '0' to a '#'
-	    //if there is an alive entity in the corresponding coordinates
-	    for (int i = 0; i<entities.size(); i++){
-	    	if (entities.get(i).isAlive()) {
-	    		Vector2D entityPos = entities.get(i).getPosition();
-		    	int stateColumnIndex = entityPos.getX()-entityBounds.x; //x
-		    	int stateRowIndex = entityPos.getY()-entityBounds.y; 	//y
-		    	
-		    	StringBuilder entityRow = new StringBuilder(state.get(stateRowIndex));
-		    	entityRow.setCharAt(stateColumnIndex, '#');
-		    	
-		    	state.set(stateRowIndex, entityRow.toString());
-	    	}
-	    }
-	    
-		//print the 2D character array developed earlier to file
-		PrintWriter out = null;
-		
-		try {
-			out = new PrintWriter(fileDirectory);
-		} catch(IOException e) {
-			e.printStackTrace();
-		}
-		
-		for (int i = 0; i<state.size(); i++) {
-			out.println(state.get(i));
-		}
-		out.close();
-		
-		System.out.println("successfully saved state to: " + fileDirectory);	//provide confirmation message
+	private boolean isHalted() {
+		return cycles.isCycleFound() && cycleAction == CycleDetector.Action.HALT;
 	}
 	
 	/*
-	 * returns the smallest Rectangle which would cover all entities.
+	 * Loads state from a file
+	 * 
+	 * The file is parsed into a new engine on the I/O thread while the game keeps running.
+	 * Once it is loaded the game loop swaps it in at the start of its next frame, moved onto
+	 * the engine in use by then if the engine was switched while the file was loading
 	 */
-	public Rectangle getEntityBounds() {
-		//variables
-		Rectangle bounds = new Rectangle();			//defines the bounds of the entities in the game
-		
-		//set initial bounds to the firsts element in array. This ensures that the
-		//the smallest x and y values will be obtained.
-		bounds.width = 0;
-		bounds.height = 0;
-		
-		if (entities.size() == 0) {
-			//if the entities array is empty then we want to return
-			//a rectangle at position (0,0), with 0 dimensions.
-			bounds.x = 0;
-			bounds.y = 0;
-			
-			return bounds;
-		}
+	public void loadStateFromFile(String fileDirectory) {
+		EngineType type = engineType;	//the loaded state runs on the rule in use when it was requested,
+		Rule rule = engine.getRule();	//unless the file names its own rule
 		
-		bounds.x = entities.get(0).getPosition().getX();
-		bounds.y = entities.get(0).getPosition().getY();
-		
-		//iterate through all entities and determine the bounds and location of all entities
-		for (int i = 0; i < entities.size(); i++) {
-			Vector2D currentPos = entities.get(i).getPosition();
-			
-			//update the position to be at the position of the most top left entity
-			if (currentPos.getX() < bounds.x) {
-				bounds.x = currentPos.getX();
-			}
-			if (currentPos.getY() < bounds.y) {
-				bounds.y = currentPos.getY();
-			}
-		}
-		
-		for (int i = 0; i < entities.size(); i++) {
-			Vector2D currentPos = entities.get(i).getPosition();
-			
-			//update the bounds to ensure rectangle encompasses all entities
-			if (currentPos.getX() - bounds.x > bounds.width) {
-				bounds.width = currentPos.getX() - bounds.x;
-			}
-			if (currentPos.getY() - bounds.y > bounds.height) {
-				bounds.height = currentPos.getY() - bounds.y;
+		ioExecutor.execute(new Runnable() {
+			public void run() {
+				LifeEngine newEngine = type.create();
+				newEngine.setRule(rule);
+				boolean loaded = StateFile.load(fileDirectory, newEngine, new StateFile.ProgressListener() {
+					private long reported;	//last reported percentage
+					
+					public void progress(long bytesRead, long totalBytes) {
+						long percent = 100 * bytesRead / Math.max(1, totalBytes);
+						if (bytesRead < totalBytes && percent / 10 > reported / 10) {
+							System.out.println("loading " + fileDirectory + ": " + percent + "%");
+							reported = percent;
+						}
+					}
+				});
+				
+				if (loaded) {
+					LoadedState previous = loadedState.getAndSet(new LoadedState(type, newEngine));
+					if (previous != null) {
+						retire(previous.engine);	//a newer load replaces one that was never swapped in
+					}
+					System.out.println("successfully loaded state from: " + fileDirectory);	//provide confirmation message
+				}
 			}
-		}
-		
-		return bounds;
+		});
 	}
 	
 	/*
-	 * cleans up the entities with zero neighbours to save space in entities array
+	 * Saves the state of the game to a file
+	 * 
+	 * The alive cells are copied on the game thread (the published snapshot only holds what is on screen)
+	 * and written on the I/O thread while the game keeps stepping
 	 */
-	public void cleanUpEntities() {
-	    for (int i = 0; i < entities.size(); i++) {
-	    	if (entities.get(i).getNeighbourNum() == 0) {
-	    		deleteEntity(i);
-	    		i--;
-	    	}
-	    }
+	public void saveStateToFile(String fileDirectory) {
+		long[] toSave = engine.snapshot();
+		Rule rule = engine.getRule();
+		
+		ioExecutor.execute(new Runnable() {
+			public void run() {
+				if (StateFile.save(fileDirectory, toSave, rule)) {
+					System.out.println("successfully saved state to: " + fileDirectory);	//provide confirmation message
+				}
+			}
+		});
 	}
 	
 	/*
-	 * adds new Conway entity to the grid at the position (x, y)
+	 * switches to a new engine of the given type, carrying over all alive entities
 	 */
-	public void addEntity(Vector2D position, boolean isAlive) {
-		entities.add(new Entity(position, this));
-		entities.get(entities.size()-1).setAlive(isAlive);
+	public void changeEngine(EngineType type) {
+		LifeEngine newEngine = type.create();
+		newEngine.setRule(engine.getRule());
+		newEngine.load(engine.snapshot());
+		newEngine.setMetrics(metrics);
+		retire(engine);
+		engine = newEngine;
+		engineType = type;
+		stepSize = Math.min(stepSize, type.getMaxStepSize());	//the hud lowers it too, this covers the ticks before it does
+		
+		System.out.println("switched to engine: " + type);
 	}
 	
 	/*
-	 * deletes the entity at the given index
+	 * releases an engine that has been replaced, if it holds resources outside the heap
 	 */
-	public void deleteEntity(int index) {
-		entities.remove(index);
+	private void retire(LifeEngine oldEngine) {
+		LifeEngine.release(oldEngine);
 	}
 	
 	/*
-	 * returns the index of an entity at the specified grid position
-	 * otherwise it returns -1
+	 * steps the current engine with a new rule from the next generation on
 	 */
-	public int isEntityAtPosition(Vector2D position) {
-		for (int i = 0; i < entities.size(); i++) {
-				if (entities.get(i).getPosition().isEqual(position)) {
-					return i;
-				}
-		}
-		
-		//return -1 if no entity exists at that position
-		return -1;
+	public void changeRule(Rule rule) {
+		engine.setRule(rule);
+		System.out.println("switched to rule: " + rule);
 	}
 	
 	/*
-	 * calls the draw function for all entities
+	 * replaces the snapshot drawn by the paint thread with what the current view shows of the current generation.
+	 * The reference is swapped in one volatile write, so painting sees either the old or the new generation
 	 */
-	public void drawAllEntities(Graphics g) {
-		for (int i = 0; i < entities.size(); i++) {
-			entities.get(i).draw(g);
-		}
+	public void publishSnapshot() {
+		long start = System.nanoTime();
+		snapshot = CellSnapshot.of(engine, viewport, getWidth(), getHeight());
+		metrics.addTime(SimulationMetrics.Phase.RENDER, System.nanoTime() - start);
 	}
 	
 	/*
-	 * updates the neighbors for all Conway entities
-	 * 
-	 * parses through each Conway entity and calls the entitie's updateNeighbours function
-	 * each entity stores their own eight neighbours, which is then used to determine
-	 * whether entities should be born or die
+	 * returns whether the published snapshot was taken for the current view and size of the screen
 	 */
-	public void updateNeighbours() {
-		for (int i = 0; i < entities.size(); i++) {
-			entities.get(i).updateNeighbours();
-		}
+	private boolean isViewPublished() {
+		CellSnapshot published = snapshot;
+		return viewport.equals(published.getViewport()) && getWidth() == published.getWidth() && getHeight() == published.getHeight();
 	}
 	
 	/*
-	 * resets the number of neighbours each entity has to zero
+	 * draws all alive entities of the latest published snapshot, through the view it was taken for
 	 */
-	public void resetEntityNeighbours() {
-		for (int i = 0; i < entities.size(); i++) {
-			entities.get(i).setNeighbourNum(0);
-		}
+	public void drawAllEntities(Graphics g) {
+		//read the snapshot once, the game thread may publish a newer one while drawing
+		renderer.draw(g, snapshot, getWidth(), getHeight(), getBackground());
 	}
 	
 	/*
-	 * update the conway entities based on the number of neihgbours each cell has
+	 * draws the metrics of the last second in the bottom left corner
 	 */
-	public void updateEntities() {
-		for (int i = 0; i < entities.size(); i++) {
-			entities.get(i).update();
+	public void drawMetrics(Graphics g) {
+		String[] lines = metrics.toLines();
+		g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		int lineHeight = g.getFontMetrics().getHeight();
+		int y = getHeight() - lineHeight * lines.length;
+		
+		g.setColor(new Color(255, 255, 255, 200));
+		g.fillRect(0, y - lineHeight + 4, 480, lineHeight * lines.length + 4);
+		g.setColor(Color.black);
+		for (int i = 0; i < lines.length; i++) {
+			g.drawString(lines[i], 4, y + i * lineHeight);
 		}
 	}
 
@@ -357,28 +378,80 @@ public class GameManager extends JPanel implements Runnable{
 		this.isRunning = isRunning;
 	}
 
-	public long getStartTime() {
-		return startTime;
+	public double getGenerationRate() {
+		return scheduler.getGenerationRate();
+	}
+
+	public void setGenerationRate(double generationRate) {
+		scheduler.setGenerationRate(generationRate);
 	}
 
-	public void setStartTime(long startTime) {
-		this.startTime = startTime;
+	public boolean isUnlimited() {
+		return scheduler.isUnlimited();
 	}
 
-	public long getFPS() {
-		return FPS;
+	public void setUnlimited(boolean unlimited) {
+		scheduler.setUnlimited(unlimited);
 	}
 
-	public void setFPS(long fPS) {
-		FPS = fPS;
+	public GameHud getHud() {
+		return hud;
 	}
 
-	public ArrayList<Entity> getEntities() {
-		return entities;
+	public FrameScheduler getScheduler() {
+		return scheduler;
 	}
 
-	public void setEntities(ArrayList<Entity> entities) {
-		this.entities = entities;
+	public SimulationMetrics getMetrics() {
+		return metrics;
+	}
+
+	public CycleDetector.Action getCycleAction() {
+		return cycleAction;
+	}
+
+	public void setCycleAction(CycleDetector.Action cycleAction) {
+		this.cycleAction = cycleAction;
+	}
+
+	public boolean isShowMetrics() {
+		return showMetrics;
+	}
+
+	public void setShowMetrics(boolean showMetrics) {
+		this.showMetrics = showMetrics;
+	}
+
+	public long getStepSize() {
+		return stepSize;
+	}
+
+	public void setStepSize(long stepSize) {
+		this.stepSize = stepSize;
+	}
+
+	public Viewport getViewport() {
+		return viewport;
+	}
+
+	public void setViewport(Viewport viewport) {
+		this.viewport = viewport;
+	}
+
+	public CellSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	public LifeEngine getEngine() {
+		return engine;
+	}
+
+	public EngineType getEngineType() {
+		return engineType;
+	}
+
+	public void setEngine(LifeEngine engine) {
+		this.engine = engine;
 	}
 
 	public int getWIDTH() {
@@ -388,4 +461,36 @@ public class GameManager extends JPanel implements Runnable{
 	public int getHEIGHT() {
 		return HEIGHT;
 	}
-}
\ No newline at end of file
+
+	public int getGRID_SIZE() {
+		return GRID_SIZE;
+	}
+	
+	/*
+	 * an engine loaded by the I/O thread and the type it was loaded into
+	 */
+	private static final class LoadedState {
+		private final EngineType type;		//type of the engine when the load was requested
+		private final LifeEngine engine;	//the loaded cells and rule
+		
+		LoadedState(EngineType type, LifeEngine engine) {
+			this.type = type;
+			this.engine = engine;
+		}
+		
+		/*
+		 * returns the loaded engine, or its cells copied into a new engine of the given type if the engine
+		 * was switched while the file was loading, so the switch is not undone by the load
+		 */
+		LifeEngine onEngine(EngineType current) {
+			if (type == current) {
+				return engine;
+			}
+			LifeEngine moved = current.create();
+			moved.setRule(engine.getRule());
+			moved.load(engine.snapshot());
+			LifeEngine.release(engine);
+			return moved;
+		}
+	}
+}
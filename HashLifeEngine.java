@@ -0,0 +1,709 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * HashLifeEngine implements Gosper's HashLife algorithm.
+ * The universe is a quadtree of canonical (hash-consed) nodes, so identical regions anywhere
+ * in space or time are stored once, and the result of advancing a node is memoised on the node.
+ * This lets the engine jump 2^k generations in a single step, which is how periodic patterns
+ * and glider guns can be run to generation 10^9 and beyond.
+ *
+ * The canonicalization table is bounded: it never holds more than maxNodes nodes (plus the handful
+ * created between two checks). A node takes roughly 64 bytes, so the default cap of 4M nodes stays around 256MB.
+ * The cap can be set with the constructor or the life.hashlife.maxNodes system property.
+ * A single jump can create far more nodes than the universe it starts from, so the cap is checked inside
+ * the recursion: once the table is full the jump is abandoned, everything that is not reachable from the
+ * universe before the jump is dropped together with all memoised results, and the jump is made again as
+ * two jumps half as long. If even one generation does not fit under the cap an IllegalStateException is thrown.
+ *
+ * The root never grows past MAX_LEVEL, so the width of every node fits in a long. Jumps too big for
+ * a root of that size are made as several smaller jumps, and a pattern that outgrows it throws an IllegalStateException.
+ */
+
+public class HashLifeEngine implements LifeEngine {
+	//constants
+	public static final long DEFAULT_MAX_NODES = 1 << 22;	//default cap on the number of canonical nodes
+	private static final int INITIAL_LEVEL = 3;				//level of the root of an empty universe (8x8 cells)
+	private static final int MAX_LEVEL = 62;				//level of the largest root, 2^62 cells wide
+	private static final int MAX_JUMP = MAX_LEVEL - 3;		//largest power of two of generations advanced in one go
+	private static final long EAST = 0x9E3779B97F4A7C15L;	//odd factor of the cell hash per cell to the east
+	private static final long SOUTH = 0xC2B2AE3D27D4EB4FL;	//odd factor of the cell hash per cell to the south
+	private static final long[] EAST_POWERS = powers(EAST);		//EAST^(2^k) for every level k
+	private static final long[] SOUTH_POWERS = powers(SOUTH);	//SOUTH^(2^k) for every level k
+	private static final long[] WEST_POWERS = powers(inverse(EAST));	//EAST^-(2^k), to move a node west
+	private static final long[] NORTH_POWERS = powers(inverse(SOUTH));	//SOUTH^-(2^k), to move a node north
+	
+	/*
+	 * A square of 2^level x 2^level cells. Nodes are immutable and canonical:
+	 * two nodes with the same children are always the same object
+	 */
+	private static final class Node {
+		final Node nw, ne, sw, se;	//the four quadrants (null for a single cell)
+		final int level;			//log2 of the width of the node
+		final long population;		//number of alive cells in the node
+		final int hash;				//hash of the structure of the node
+		final long cellHash;		//sum of EAST^x * SOUTH^y over the alive cells (x, y) relative to the top left of the node
+		
+		Node chain;					//next node in the same bucket of the canonicalization table
+		Node result;				//memoised centre of this node advanced 2^resultLog generations
+		int resultLog;				//number of generations (as a power of 2) result was advanced
+		
+		Node(Node nw, Node ne, Node sw, Node se) {
+			this.nw = nw;
+			this.ne = ne;
+			this.sw = sw;
+			this.se = se;
+			this.level = nw.level + 1;
+			this.population = nw.population + ne.population + sw.population + se.population;
+			this.hash = hash(nw, ne, sw, se);
+			
+			long east = EAST_POWERS[level - 1];
+			long south = SOUTH_POWERS[level - 1];
+			this.cellHash = nw.cellHash + east * ne.cellHash + south * (sw.cellHash + east * se.cellHash);
+		}
+		
+		Node(boolean alive) {
+			this.nw = this.ne = this.sw = this.se = null;
+			this.level = 0;
+			this.population = alive ? 1 : 0;
+			this.hash = alive ? 1 : 0;
+			this.cellHash = alive ? 1 : 0;
+		}
+		
+		static int hash(Node nw, Node ne, Node sw, Node se) {
+			int h = nw.hash;
+			h = h * 31 + ne.hash;
+			h = h * 31 + sw.hash;
+			h = h * 31 + se.hash;
+			return h ^ (h >>> 16);
+		}
+	}
+	
+	/*
+	 * Thrown by successor() when the table is full, to abandon the jump.
+	 * A single instance without a stack trace, since it is only used to unwind the recursion
+	 */
+	private static final class NodeCapReached extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		static final NodeCapReached INSTANCE = new NodeCapReached();
+		
+		private NodeCapReached() {
+			super("hashlife: node cap reached", null, false, false);
+		}
+	}
+	
+	//variables
+	private final Node dead = new Node(false);	//the single dead cell
+	private final Node alive = new Node(true);	//the single alive cell
+	private Node[] empty;						//the empty node of each level
+	private Node[] quads;						//the sixteen 2x2 nodes, indexed by their four cell bits
+	private byte[] leafResults;					//next generation of the centre 2x2 cells of every 4x4 block under the rule
+	private Rule rule;							//the rule the universe is stepped with
+	
+	private Node[] table;						//canonicalization table of all nodes above level 0
+	private int tableSize;						//number of nodes in the table
+	private long maxNodes;						//most nodes the table may hold
+	
+	private Node root;							//the universe. Its centre is the cell (0, 0)
+	private long generation;					//number of generations stepped since the last clear
+	private SimulationMetrics metrics;			//receives the time of each step, null if not measured
+	
+	/*
+	 * constructor creates an empty universe with the default node cap
+	 */
+	public HashLifeEngine() {
+		this(Long.getLong("life.hashlife.maxNodes", DEFAULT_MAX_NODES));
+	}
+	
+	/*
+	 * constructor creates an empty universe that keeps at most maxNodes canonical nodes
+	 */
+	public HashLifeEngine(long maxNodes) {
+		this.maxNodes = maxNodes;
+		this.rule = Rule.CONWAY;
+		this.leafResults = computeLeafResults(rule);
+		clear();
+	}
+	
+	/*
+	 * advances the universe by one generation
+	 */
+	public void step() {
+		advance(0);
+	}
+	
+	/*
+	 * advances the universe by the given number of generations,
+	 * one power of two at a time. Powers above MAX_JUMP are made of several jumps of 2^MAX_JUMP
+	 */
+	public void step(long generations) {
+		for (int j = 0; j < 63; j++) {
+			if ((generations & (1L << j)) != 0) {
+				if (j <= MAX_JUMP) {
+					advance(j);
+				}
+				else {
+					for (long i = 0; i < 1L << (j - MAX_JUMP); i++) {
+						advance(MAX_JUMP);
+					}
+				}
+			}
+		}
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public void skipGenerations(long generations) {
+		generation += generations;
+	}
+	
+	public long population() {
+		return root.population;
+	}
+	
+	/*
+	 * returns the hash of the alive cells from the hash cached on the root, without visiting any node.
+	 * The Zobrist hash of the other engines cannot be cached per node, since the key of a cell depends on where
+	 * the node is. Instead every node caches the sum of EAST^x * SOUTH^y over its cells, relative to its top left
+	 * corner, which its parent shifts into place with a multiplication. Empty nodes add nothing, so the hash does
+	 * not depend on the size of the root; it is a different hash from the other engines, but equal sets of cells
+	 * still have equal hashes, which is all CycleDetector needs
+	 */
+	public long hash() {
+		int k = root.level - 1;	//the top left corner of the root is at (-2^k, -2^k)
+		return WEST_POWERS[k] * NORTH_POWERS[k] * root.cellHash;
+	}
+	
+	public void clear() {
+		table = new Node[1 << 10];
+		tableSize = 0;
+		empty = new Node[MAX_LEVEL + 1];
+		empty[0] = dead;
+		quads = new Node[16];
+		for (int i = 0; i < 16; i++) {
+			quads[i] = join(leaf(i, 0), leaf(i, 1), leaf(i, 2), leaf(i, 3));
+		}
+		root = emptyNode(INITIAL_LEVEL);
+		generation = 0;
+	}
+	
+	public void setAlive(int x, int y, boolean alive) {
+		if (!alive && !contains(x, y)) {
+			return;	//cells outside of the root are already dead
+		}
+		while (!contains(x, y)) {
+			root = expand(root);
+		}
+		long half = 1L << (root.level - 1);
+		root = set(root, x + half, y + half, alive);
+	}
+	
+	public boolean isAlive(int x, int y) {
+		if (!contains(x, y)) {
+			return false;
+		}
+		long half = 1L << (root.level - 1);
+		return get(root, x + half, y + half);
+	}
+	
+	/*
+	 * sets the rule. The nodes do not depend on the rule and are kept, but every memoised result is dropped
+	 */
+	public void setRule(Rule rule) {
+		if (rule.equals(this.rule)) {
+			return;
+		}
+		
+		this.rule = rule;
+		leafResults = computeLeafResults(rule);
+		for (int i = 0; i < table.length; i++) {
+			for (Node n = table[i]; n != null; n = n.chain) {
+				n.result = null;
+			}
+		}
+	}
+	
+	public Rule getRule() {
+		return rule;
+	}
+	
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public long[] snapshot() {
+		long[] cells = new long[(int)root.population];
+		long half = 1L << (root.level - 1);
+		collect(root, -half, -half, cells, 0);
+		return cells;
+	}
+	
+	/*
+	 * returns the alive cells inside the rectangle, skipping every node that lies outside it
+	 */
+	public long[] snapshot(int left, int top, int width, int height) {
+		LongList inside = new LongList();
+		long half = 1L << (root.level - 1);
+		collect(root, -half, -half, left, top, width, height, inside);
+		return inside.toArray();
+	}
+	
+	/*
+	 * counts the blocks from the populations of the nodes: a node that fits inside one block adds its population
+	 * to that block without being looked into, so a zoomed out view costs about one node per block
+	 */
+	public void countBlocks(int left, int top, int blockSize, int columns, int rows, int[] counts) {
+		Arrays.fill(counts, 0, columns * rows, 0);
+		long half = 1L << (root.level - 1);
+		count(root, -half, -half, left, top, blockSize, columns, rows, counts);
+	}
+	
+	/*
+	 * advances the universe by 2^j generations. If the table fills up during the jump, the nodes
+	 * the jump created are dropped and it is made as two jumps of 2^(j-1) generations instead
+	 */
+	private void advance(int j) {
+		//the root must be big enough to be advanced 2^j generations in one go,
+		//and the pattern must be far enough from its edge that nothing can escape the result
+		long start = metrics != null ? System.nanoTime() : 0;
+		while (root.level < j + 3 || !isPaddedForStep(root)) {
+			root = expand(root);
+		}
+		if (tableSize > maxNodes) {
+			collectGarbage();	//setting cells or padding the root filled the table
+		}
+		
+		Node result;
+		try {
+			result = successor(root, j);
+		} catch (NodeCapReached e) {
+			long failed = metrics != null ? System.nanoTime() : 0;
+			collectGarbage();
+			if (metrics != null) {
+				metrics.addTime(SimulationMetrics.Phase.UPDATE, failed - start);
+				metrics.addTime(SimulationMetrics.Phase.CLEANUP, System.nanoTime() - failed);
+			}
+			if (j == 0) {
+				throw new IllegalStateException("hashlife: a single generation of the universe needs more than " + maxNodes
+						+ " nodes, raise life.hashlife.maxNodes");
+			}
+			advance(j - 1);
+			advance(j - 1);
+			return;
+		}
+		root = result;
+		generation += 1L << j;
+		
+		//padding, counting and updating all happen inside successor(), so they are reported as UPDATE
+		if (metrics != null) {
+			metrics.addTime(SimulationMetrics.Phase.UPDATE, System.nanoTime() - start);
+			metrics.setTrackedCells(tableSize);
+		}
+	}
+	
+	/*
+	 * returns whether every alive cell of the node lies in the centre square a quarter of its width.
+	 * A pattern there can grow for 2^(level-3) generations and still be inside the centre half
+	 * that successor() returns
+	 */
+	private boolean isPaddedForStep(Node n) {
+		return	n.nw.se.se.population + n.ne.sw.sw.population +
+				n.sw.ne.ne.population + n.se.nw.nw.population == n.population;
+	}
+	
+	/*
+	 * returns the centre of the node (one level down) advanced 2^j generations, where j <= level-2
+	 */
+	private Node successor(Node n, int j) {
+		if (n.population == 0) {
+			return emptyNode(n.level - 1);
+		}
+		if (n.result != null && n.resultLog == j) {
+			return n.result;
+		}
+		if (tableSize > maxNodes) {
+			throw NodeCapReached.INSTANCE;	//no node of the jump is referenced from the root yet, so it can be dropped
+		}
+		
+		Node result;
+		if (n.level == 2) {
+			result = quads[leafResults[leafIndex(n)]];
+		}
+		else {
+			//the nine overlapping sub squares of the node, one level down
+			Node n00 = n.nw;
+			Node n01 = join(n.nw.ne, n.ne.nw, n.nw.se, n.ne.sw);
+			Node n02 = n.ne;
+			Node n10 = join(n.nw.sw, n.nw.se, n.sw.nw, n.sw.ne);
+			Node n11 = join(n.nw.se, n.ne.sw, n.sw.ne, n.se.nw);
+			Node n12 = join(n.ne.sw, n.ne.se, n.se.nw, n.se.ne);
+			Node n20 = n.sw;
+			Node n21 = join(n.sw.ne, n.se.nw, n.sw.se, n.se.sw);
+			Node n22 = n.se;
+			
+			if (j == n.level - 2) {
+				//full speed: advance every sub square by half of the time, then the four combined squares by the other half
+				Node c00 = successor(n00, j - 1);
+				Node c01 = successor(n01, j - 1);
+				Node c02 = successor(n02, j - 1);
+				Node c10 = successor(n10, j - 1);
+				Node c11 = successor(n11, j - 1);
+				Node c12 = successor(n12, j - 1);
+				Node c20 = successor(n20, j - 1);
+				Node c21 = successor(n21, j - 1);
+				Node c22 = successor(n22, j - 1);
+				
+				result = join(	successor(join(c00, c01, c10, c11), j - 1),
+								successor(join(c01, c02, c11, c12), j - 1),
+								successor(join(c10, c11, c20, c21), j - 1),
+								successor(join(c11, c12, c21, c22), j - 1));
+			}
+			else {
+				//slower: take the centre of every sub square without advancing, then advance the four combined squares all the way
+				Node c00 = centre(n00);
+				Node c01 = centre(n01);
+				Node c02 = centre(n02);
+				Node c10 = centre(n10);
+				Node c11 = centre(n11);
+				Node c12 = centre(n12);
+				Node c20 = centre(n20);
+				Node c21 = centre(n21);
+				Node c22 = centre(n22);
+				
+				result = join(	successor(join(c00, c01, c10, c11), j),
+								successor(join(c01, c02, c11, c12), j),
+								successor(join(c10, c11, c20, c21), j),
+								successor(join(c11, c12, c21, c22), j));
+			}
+		}
+		
+		n.result = result;
+		n.resultLog = j;
+		return result;
+	}
+	
+	/*
+	 * returns the centre of the node, one level down
+	 */
+	private Node centre(Node n) {
+		return join(n.nw.se, n.ne.sw, n.sw.ne, n.se.nw);
+	}
+	
+	/*
+	 * returns the node twice the size with the given node in its centre.
+	 * Throws IllegalStateException if that node would be wider than MAX_LEVEL allows
+	 */
+	private Node expand(Node n) {
+		if (n.level >= MAX_LEVEL) {
+			throw new IllegalStateException("hashlife: the universe cannot grow wider than 2^" + MAX_LEVEL + " cells");
+		}
+		Node e = emptyNode(n.level - 1);
+		return join(join(e, e, e, n.nw), join(e, e, n.ne, e),
+					join(e, n.sw, e, e), join(n.se, e, e, e));
+	}
+	
+	/*
+	 * returns the canonical node with the given quadrants
+	 */
+	private Node join(Node nw, Node ne, Node sw, Node se) {
+		int hash = Node.hash(nw, ne, sw, se);
+		int bucket = hash & (table.length - 1);
+		
+		for (Node n = table[bucket]; n != null; n = n.chain) {
+			if (n.nw == nw && n.ne == ne && n.sw == sw && n.se == se) {
+				return n;
+			}
+		}
+		
+		Node n = new Node(nw, ne, sw, se);
+		insert(n);
+		return n;
+	}
+	
+	/*
+	 * adds the node to the canonicalization table, growing the table when it gets full
+	 */
+	private void insert(Node n) {
+		if (tableSize >= table.length - (table.length >> 2)) {
+			Node[] oldTable = table;
+			table = new Node[oldTable.length * 2];
+			for (int i = 0; i < oldTable.length; i++) {
+				Node chained = oldTable[i];
+				while (chained != null) {
+					Node following = chained.chain;
+					int bucket = chained.hash & (table.length - 1);
+					chained.chain = table[bucket];
+					table[bucket] = chained;
+					chained = following;
+				}
+			}
+		}
+		
+		int bucket = n.hash & (table.length - 1);
+		n.chain = table[bucket];
+		table[bucket] = n;
+		tableSize++;
+	}
+	
+	/*
+	 * drops every node that is not reachable from the root, and all memoised results.
+	 * The empty nodes and 2x2 nodes are kept since they are referenced directly
+	 */
+	private void collectGarbage() {
+		table = new Node[table.length];
+		tableSize = 0;
+		
+		for (int i = 1; i < empty.length && empty[i] != null; i++) {
+			keep(empty[i]);
+		}
+		for (int i = 0; i < quads.length; i++) {
+			keep(quads[i]);
+		}
+		keep(root);
+	}
+	
+	/*
+	 * re-inserts the node and everything below it into the (new) canonicalization table
+	 */
+	private void keep(Node n) {
+		if (n.level == 0) {
+			return;
+		}
+		
+		int bucket = n.hash & (table.length - 1);
+		for (Node kept = table[bucket]; kept != null; kept = kept.chain) {
+			if (kept == n) {
+				return;	//already kept through another parent
+			}
+		}
+		
+		n.result = null;
+		insert(n);
+		keep(n.nw);
+		keep(n.ne);
+		keep(n.sw);
+		keep(n.se);
+	}
+	
+	/*
+	 * returns the empty node of the given level
+	 */
+	private Node emptyNode(int level) {
+		if (empty[level] == null) {
+			Node e = emptyNode(level - 1);
+			empty[level] = join(e, e, e, e);
+		}
+		return empty[level];
+	}
+	
+	/*
+	 * returns the node with the cell at (x, y) set, where x and y are relative to the top left of the node
+	 */
+	private Node set(Node n, long x, long y, boolean isAlive) {
+		if (n.level == 0) {
+			return isAlive ? alive : dead;
+		}
+		
+		long half = 1L << (n.level - 1);
+		if (y < half) {
+			if (x < half) {
+				return join(set(n.nw, x, y, isAlive), n.ne, n.sw, n.se);
+			}
+			return join(n.nw, set(n.ne, x - half, y, isAlive), n.sw, n.se);
+		}
+		if (x < half) {
+			return join(n.nw, n.ne, set(n.sw, x, y - half, isAlive), n.se);
+		}
+		return join(n.nw, n.ne, n.sw, set(n.se, x - half, y - half, isAlive));
+	}
+	
+	/*
+	 * returns whether the cell at (x, y) is alive, where x and y are relative to the top left of the node
+	 */
+	private boolean get(Node n, long x, long y) {
+		while (n.level > 0) {
+			if (n.population == 0) {
+				return false;
+			}
+			
+			long half = 1L << (n.level - 1);
+			if (y < half) {
+				n = x < half ? n.nw : n.ne;
+			}
+			else {
+				n = x < half ? n.sw : n.se;
+				y -= half;
+			}
+			if (x >= half) {
+				x -= half;
+			}
+		}
+		return n.population != 0;
+	}
+	
+	/*
+	 * adds the packed position of every alive cell in the node, whose top left cell is (x, y), to cells.
+	 * returns the number of cells in the array after adding
+	 */
+	private int collect(Node n, long x, long y, long[] cells, int count) {
+		if (n.population == 0) {
+			return count;
+		}
+		if (n.level == 0) {
+			cells[count] = Vector2D.pack((int)x, (int)y);
+			return count + 1;
+		}
+		
+		long half = 1L << (n.level - 1);
+		count = collect(n.nw, x, y, cells, count);
+		count = collect(n.ne, x + half, y, cells, count);
+		count = collect(n.sw, x, y + half, cells, count);
+		return collect(n.se, x + half, y + half, cells, count);
+	}
+	
+	/*
+	 * adds the alive cells of the node, whose top left cell is at (x, y), that lie inside the rectangle to the list
+	 */
+	private void collect(Node n, long x, long y, long left, long top, long width, long height, LongList cells) {
+		long size = 1L << n.level;
+		if (n.population == 0 || x >= left + width || y >= top + height || x + size <= left || y + size <= top) {
+			return;
+		}
+		if (n.level == 0) {
+			cells.add(Vector2D.pack((int)x, (int)y));
+			return;
+		}
+		
+		long half = size >> 1;
+		collect(n.nw, x, y, left, top, width, height, cells);
+		collect(n.ne, x + half, y, left, top, width, height, cells);
+		collect(n.sw, x, y + half, left, top, width, height, cells);
+		collect(n.se, x + half, y + half, left, top, width, height, cells);
+	}
+	
+	/*
+	 * adds the population of the node, whose top left cell is at (x, y), to the blocks it overlaps (see countBlocks)
+	 */
+	private void count(Node n, long x, long y, long left, long top, int blockSize, int columns, int rows, int[] counts) {
+		long size = 1L << n.level;
+		if (n.population == 0 || x >= left + (long)blockSize * columns || y >= top + (long)blockSize * rows || x + size <= left || y + size <= top) {
+			return;
+		}
+		
+		long column = Math.floorDiv(x - left, blockSize);
+		long row = Math.floorDiv(y - top, blockSize);
+		if (column >= 0 && row >= 0 && column == (x + size - 1 - left) / blockSize && row == (y + size - 1 - top) / blockSize) {
+			int block = (int)(row * columns + column);
+			counts[block] = (int)Math.min(Integer.MAX_VALUE, counts[block] + n.population);
+			return;
+		}
+		
+		long half = size >> 1;
+		count(n.nw, x, y, left, top, blockSize, columns, rows, counts);
+		count(n.ne, x + half, y, left, top, blockSize, columns, rows, counts);
+		count(n.sw, x, y + half, left, top, blockSize, columns, rows, counts);
+		count(n.se, x + half, y + half, left, top, blockSize, columns, rows, counts);
+	}
+	
+	/*
+	 * returns whether the cell (x, y) is inside the root
+	 */
+	private boolean contains(int x, int y) {
+		long half = 1L << (root.level - 1);
+		return x >= -half && x < half && y >= -half && y < half;
+	}
+	
+	/*
+	 * returns the alive cell or dead cell for the given quadrant (nw = 0, ne = 1, sw = 2, se = 3) of a 2x2 bit pattern
+	 */
+	private Node leaf(int bits, int quadrant) {
+		return (bits & (1 << quadrant)) != 0 ? alive : dead;
+	}
+	
+	/*
+	 * returns the cells of a 4x4 node as a 16 bit number, bit (y*4 + x) for the cell (x, y)
+	 */
+	private int leafIndex(Node n) {
+		int index = 0;
+		for (int y = 0; y < 4; y++) {
+			for (int x = 0; x < 4; x++) {
+				Node quadrant = y < 2 ? (x < 2 ? n.nw : n.ne) : (x < 2 ? n.sw : n.se);
+				Node cell = (y & 1) == 0 ? ((x & 1) == 0 ? quadrant.nw : quadrant.ne) : ((x & 1) == 0 ? quadrant.sw : quadrant.se);
+				index |= (int)cell.population << (y * 4 + x);
+			}
+		}
+		return index;
+	}
+	
+	/*
+	 * works out the next generation of the centre 2x2 cells of every possible 4x4 block under the rule.
+	 * The result is a 2x2 bit pattern (see leaf) and so an index into quads
+	 */
+	private static byte[] computeLeafResults(Rule rule) {
+		byte[] results = new byte[1 << 16];
+		
+		for (int block = 0; block < results.length; block++) {
+			int result = 0;
+			for (int quadrant = 0; quadrant < 4; quadrant++) {
+				int cx = 1 + (quadrant & 1);	//position of the centre cell in the 4x4 block
+				int cy = 1 + (quadrant >> 1);
+				int neighbourNum = 0;
+				
+				for (int dy = -1; dy <= 1; dy++) {
+					for (int dx = -1; dx <= 1; dx++) {
+						if (!(dx == 0 && dy == 0)) {
+							neighbourNum += (block >> ((cy + dy) * 4 + cx + dx)) & 1;
+						}
+					}
+				}
+				
+				boolean isAlive = ((block >> (cy * 4 + cx)) & 1) != 0;
+				if (rule.isAliveNext(isAlive, neighbourNum)) {
+					result |= 1 << quadrant;
+				}
+			}
+			results[block] = (byte)result;
+		}
+		return results;
+	}
+	
+	//getters and setters
+	public long getMaxNodes() {
+		return maxNodes;
+	}
+	
+	public void setMaxNodes(long maxNodes) {
+		this.maxNodes = maxNodes;
+	}
+	
+	public int getNodeCount() {
+		return tableSize;
+	}
+	
+	/*
+	 * returns factor^(2^k) for every k up to MAX_LEVEL, by squaring
+	 */
+	private static long[] powers(long factor) {
+		long[] powers = new long[MAX_LEVEL + 1];
+		powers[0] = factor;
+		for (int k = 1; k <= MAX_LEVEL; k++) {
+			powers[k] = powers[k - 1] * powers[k - 1];
+		}
+		return powers;
+	}
+	
+	/*
+	 * returns the inverse of an odd number modulo 2^64 by Newton's iteration, each of which doubles the correct low bits
+	 */
+	private static long inverse(long odd) {
+		long inverse = odd;	//correct in the low 3 bits, since odd * odd = 1 mod 8
+		for (int i = 0; i < 5; i++) {
+			inverse *= 2 - odd * inverse;
+		}
+		return inverse;
+	}
+}
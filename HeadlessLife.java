@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * Runs a state file for a number of generations without opening a window.
+ * usage: java HeadlessLife <state file> <generations> [engine] [rule]
+ * where engine is one of the EngineType names (sparse by default) and rule is in B/S notation
+ * (the rule of an RLE file, or B3/S23, by default)
+ *
+ * With the off-heap engine, -Dlife.board.file=<file> keeps the board in a memory mapped file
+ * (of -Dlife.board.width x -Dlife.board.height cells). A checkpoint left in the file is resumed instead of
+ * loading the state file, and the board is flushed to the file every CHECKPOINT_PERIOD and at the end.
+ * If the file cannot be mapped (it is not a board of that size, or holds no complete checkpoint) it is left alone and the run stops.
+ * The run also stops, with exit status 1, if the state file cannot be read
+ *
+ * While it runs the SimulationMetrics are published over JMX (ConwaysGameOfLife:type=SimulationMetrics,name="headless"),
+ * and the metrics of the last full second are printed at the end. They are sampled between steps that are sized to take
+ * about SAMPLE_PERIOD each, so a hashlife run still jumps by as many generations as it can step in that time
+ */
+
+public class HeadlessLife {
+	//constants
+	private static final long SAMPLE_PERIOD = 100000000L;	//nanoseconds a step between two samples of the metrics should take
+	private static final long CHECKPOINT_PERIOD = 60000000000L;	//nanoseconds between two checkpoints of a mapped board
+	
+	public static void main(String[] args) {
+		if (args.length < 2 || args.length > 4) {
+			System.out.println("usage: java HeadlessLife <state file> <generations> [engine] [rule]");
+			return;
+		}
+		
+		EngineType type = args.length >= 3 ? EngineType.valueOf(args[2].toUpperCase()) : EngineType.SPARSE;
+		LifeEngine engine = createEngine(type);			//simulation without any display
+		long generations = Long.parseLong(args[1]);		//number of generations to run
+		
+		SimulationMetrics metrics = new SimulationMetrics();
+		metrics.register("headless");
+		
+		if (engine instanceof OffHeapLifeEngine && ((OffHeapLifeEngine)engine).isResumed()) {
+			System.out.println("resumed checkpoint at generation " + engine.getGeneration());
+		}
+		else if (!StateFile.load(args[0], engine)) {
+			//rather than run an empty universe; a mapped board keeps its last checkpoint
+			System.err.println("cannot load the state file " + args[0]);
+			LifeEngine.release(engine);
+			System.exit(1);
+		}
+		if (args.length == 4) {
+			engine.setRule(Rule.parse(args[3]));
+		}
+		engine.setMetrics(metrics);
+		
+		long startTime = System.nanoTime();
+		long checkpointTime = startTime;
+		long chunk = 1;	//generations per step, doubled or halved so a step takes about SAMPLE_PERIOD whatever the engine
+		for (long done = 0; done < generations; ) {
+			long stepSize = Math.min(chunk, generations - done);
+			long stepStart = System.nanoTime();
+			engine.step(stepSize);
+			long stepTime = System.nanoTime() - stepStart;
+			done += stepSize;
+			metrics.sample(engine);
+			
+			//hashlife jumps far in the time other engines step a few generations, so its chunk keeps growing
+			if (stepTime < SAMPLE_PERIOD / 2 && chunk <= Long.MAX_VALUE / 2) {
+				chunk *= 2;
+			}
+			else if (stepTime > SAMPLE_PERIOD && chunk > 1) {
+				chunk /= 2;
+			}
+			
+			if (engine instanceof OffHeapLifeEngine && System.nanoTime() - checkpointTime > CHECKPOINT_PERIOD) {
+				((OffHeapLifeEngine)engine).flush();
+				checkpointTime = System.nanoTime();
+			}
+		}
+		long elapsedTime = System.nanoTime() - startTime;
+		
+		if (engine instanceof OffHeapLifeEngine) {
+			((OffHeapLifeEngine)engine).flush();
+		}
+		LifeEngine.release(engine);
+		
+		System.out.println("rule: " + engine.getRule());
+		System.out.println("generation: " + engine.getGeneration());
+		System.out.println("population: " + engine.population());
+		System.out.println("time: " + elapsedTime / 1000000 + " ms (" + (long)(generations / (elapsedTime / 1e9)) + " generations/s)");
+		for (String line : metrics.toLines()) {
+			System.out.println(line);
+		}
+	}
+	
+	/*
+	 * creates the engine, mapping an off-heap board to the file given by -Dlife.board.file if there is one.
+	 * Exits if the file cannot be mapped, rather than run a board that would not be saved anywhere
+	 */
+	private static LifeEngine createEngine(EngineType type) {
+		String file = System.getProperty("life.board.file");
+		if (type != EngineType.OFF_HEAP || file == null) {
+			return type.create();
+		}
+		
+		try {
+			return OffHeapLifeEngine.map(Paths.get(file),	Integer.getInteger("life.board.width", BoundedLifeEngine.DEFAULT_SIZE),
+															Integer.getInteger("life.board.height", BoundedLifeEngine.DEFAULT_SIZE));
+		} catch (IOException e) {
+			System.err.println("cannot map the board to " + file + ": " + e.getMessage());
+			System.exit(1);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,444 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * Benchmark suite for the engines and the state files.
+ * Measures generations/s for every bundled states/*.state pattern and for seeded random soups
+ * of several sizes and densities, the latency of a single cell lookup, and the throughput of
+ * loading and saving state files, the dense engine's vector row kernel against its scalar one (see RowKernel),
+ * and temporal blocking (see TemporalLifeEngine) against stepping a generation at a time.
+ * Every benchmark is warmed up and then measured over a number of timed iterations. Results are written as JSON lines (or CSV) so they can be tracked over time.
+ * Every result of the measured work (the generation after a step, each lookup batch, each file) is written to a volatile sink
+ * with consume(), so the JIT cannot drop the work as dead code.
+ *
+ * The same benchmarks run under JMH in jmh/benchmarks/LifeBenchmarks.java (mvn -Pjmh package, see pom.xml), which is what
+ * scores should be compared with. This harness is kept as a fallback that needs nothing but javac, for a quick look where
+ * Maven cannot fetch JMH. It is hand-rolled, and its numbers should be read with its limits in mind:
+ * every benchmark runs in this one JVM, so the profile and the inlining decisions of one benchmark carry over into the next
+ * and the order of the benchmarks can change their scores. The sink is a volatile field rather than a JMH blackhole, so every
+ * consume() costs a memory barrier; lookups are consumed a batch of LOOKUPS at a time so it stays small next to the work measured.
+ * Warmup is a fixed number of timed iterations (--warmup) rather than a check that the JIT has settled, and the error is the
+ * standard deviation of the measured iterations of one run only. Compare scores from the same run, or from runs on the same
+ * machine with the same options, and rerun a single benchmark with --filter before trusting a small difference.
+ *
+ * Run from the repository root so the states directory is found.
+ * usage: java LifeBenchmark [--out results.jsonl|results.csv] [--filter text]
+ *                           [--engines sparse,dense,...] [--warmup n] [--iterations n] [--time ms]
+ */
+
+public class LifeBenchmark {
+	//constants
+	private static final int[] SOUP_SIZES = {64, 256, 1024};			//width and height of the random soups
+	private static final double[] SOUP_DENSITIES = {0.1, 0.35, 0.5};	//fraction of alive cells in the random soups
+	static final long SOUP_SEED = 463015;								//seed of the random soups, so runs are comparable
+	private static final int LOOKUPS = 1 << 16;							//number of cells probed per lookup batch
+	private static final int BLOCKING_SIZE = 4096;						//width and height of the soup of the temporal blocking benchmark
+	
+	//variables
+	private int warmupIterations = 3;			//iterations run before measuring
+	private int measureIterations = 5;			//iterations measured
+	private long iterationMillis = 500;			//minimum length of an iteration
+	private String filter = "";					//only run benchmarks whose name contains this
+	private EngineType[] engines = EngineType.values();	//engines to benchmark
+	private PrintStream out = System.out;		//where results are written
+	private boolean csv;						//write CSV instead of JSON lines
+	private static volatile long sink;			//every result is consumed here so the JIT cannot drop the measured work
+	
+	public static void main(String[] args) throws IOException {
+		LifeBenchmark benchmark = new LifeBenchmark();
+		
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "--out":
+					benchmark.csv = args[i + 1].endsWith(".csv");
+					benchmark.out = new PrintStream(args[++i], "UTF-8");
+					break;
+				case "--filter":
+					benchmark.filter = args[++i];
+					break;
+				case "--engines":
+					String[] names = args[++i].split(",");
+					benchmark.engines = new EngineType[names.length];
+					for (int j = 0; j < names.length; j++) {
+						benchmark.engines[j] = EngineType.valueOf(names[j].trim().toUpperCase());
+					}
+					break;
+				case "--warmup":
+					benchmark.warmupIterations = Integer.parseInt(args[++i]);
+					break;
+				case "--iterations":
+					benchmark.measureIterations = Integer.parseInt(args[++i]);
+					break;
+				case "--time":
+					benchmark.iterationMillis = Long.parseLong(args[++i]);
+					break;
+				default:
+					System.err.println("unknown option: " + args[i]);
+					return;
+			}
+		}
+		
+		benchmark.runAll();
+		benchmark.out.flush();
+		if (benchmark.out != System.out) {
+			benchmark.out.close();
+		}
+	}
+	
+	/*
+	 * runs every benchmark that matches the filter
+	 */
+	public void runAll() throws IOException {
+		if (csv) {
+			out.println("benchmark,engine,pattern,score,error,unit,iterations");
+		}
+		
+		//generations/s of the bundled patterns
+		File[] stateFiles = new File("states").listFiles();
+		if (stateFiles != null) {
+			Arrays.sort(stateFiles);
+			for (File stateFile : stateFiles) {
+				if (stateFile.getName().endsWith(".state")) {
+					long[] cells = loadCells(stateFile.getPath());
+					for (EngineType type : engines) {
+						benchmarkStepping(type, stateFile.getName(), cells);
+					}
+				}
+			}
+		}
+		
+		//generations/s of random soups
+		for (int size : SOUP_SIZES) {
+			for (double density : SOUP_DENSITIES) {
+				long[] cells = randomSoup(size, density, SOUP_SEED);
+				String pattern = "soup-" + size + "x" + size + "-" + density;
+				for (EngineType type : engines) {
+					benchmarkStepping(type, pattern, cells);
+				}
+			}
+		}
+		
+		//vector against scalar dense stepping, on the same hardware
+		for (double density : SOUP_DENSITIES) {
+			benchmarkKernels("soup-1024x1024-" + density, randomSoup(1024, density, SOUP_SEED));
+		}
+		
+		//several generations per pass over the board against one, on a board bigger than the L2 cache
+		benchmarkBlocking("soup-" + BLOCKING_SIZE + "x" + BLOCKING_SIZE + "-0.35", randomSoup(BLOCKING_SIZE, 0.35, SOUP_SEED));
+		
+		//cell lookup latency
+		long[] lookupCells = randomSoup(256, 0.35, SOUP_SEED);
+		for (EngineType type : engines) {
+			benchmarkLookup(type, "soup-256x256-0.35", lookupCells);
+		}
+		
+		//state file load and save throughput
+		for (int size : SOUP_SIZES) {
+			benchmarkFiles("soup-" + size + "x" + size + "-0.35", randomSoup(size, 0.35, SOUP_SEED));
+		}
+	}
+	
+	/*
+	 * measures generations/s of the engine, starting from the cells every iteration
+	 */
+	private void benchmarkStepping(EngineType type, String pattern, long[] cells) {
+		String name = "step";
+		if (!matches(name, type.name(), pattern)) {
+			return;
+		}
+		
+		LifeEngine engine = type.create();
+		double[] scores = new double[measureIterations];
+		
+		for (int i = -warmupIterations; i < measureIterations; i++) {
+			engine.load(cells);
+			
+			long generations = 0;
+			long startTime = System.nanoTime();
+			long elapsedTime;
+			do {
+				engine.step();
+				consume(engine.getGeneration());
+				generations++;
+				elapsedTime = System.nanoTime() - startTime;
+			} while (elapsedTime < iterationMillis * 1000000);
+			
+			consume(engine.population());
+			if (i >= 0) {
+				scores[i] = generations / (elapsedTime / 1e9);
+			}
+		}
+		LifeEngine.release(engine);
+		report(name, type.name(), pattern, scores, "generations/s");
+	}
+	
+	/*
+	 * measures generations/s of the dense engine with the scalar kernel and with the kernel RowKernel.create() picks.
+	 * Without the Vector API both are the scalar kernel, so only the scalar result is reported
+	 */
+	private void benchmarkKernels(String pattern, long[] cells) {
+		RowKernel[] kernels = {new ScalarRowKernel(), RowKernel.create()};
+		
+		for (int k = 0; k < kernels.length; k++) {
+			String engineName = EngineType.DENSE.name() + "-" + kernels[k];
+			if (!matches("kernel", engineName, pattern)) {
+				continue;
+			}
+			if (k > 0 && kernels[k] instanceof ScalarRowKernel) {
+				System.err.println("kernel " + pattern + ": the Vector API is not available (build with build.sh and run with --add-modules jdk.incubator.vector)");
+				return;
+			}
+			
+			DenseLifeEngine engine = new DenseLifeEngine();
+			engine.setKernel(kernels[k]);
+			double[] scores = new double[measureIterations];
+			
+			for (int i = -warmupIterations; i < measureIterations; i++) {
+				engine.load(cells);
+				
+				long generations = 0;
+				long startTime = System.nanoTime();
+				long elapsedTime;
+				do {
+					engine.step();
+					consume(engine.getGeneration());
+					generations++;
+					elapsedTime = System.nanoTime() - startTime;
+				} while (elapsedTime < iterationMillis * 1000000);
+				
+				consume(engine.population());
+				if (i >= 0) {
+					scores[i] = generations / (elapsedTime / 1e9);
+				}
+			}
+			report("kernel", engineName, pattern, scores, "generations/s");
+		}
+	}
+	
+	/*
+	 * measures generations/s of the dense engine and of temporal blocking, both stepped with step(n)
+	 * like the game loop does, TemporalLifeEngine.DEFAULT_DEPTH generations at a time
+	 */
+	private void benchmarkBlocking(String pattern, long[] cells) {
+		EngineType[] types = {EngineType.DENSE, EngineType.TEMPORAL};
+		
+		for (EngineType type : types) {
+			if (!matches("blocking", type.name(), pattern)) {
+				continue;
+			}
+			
+			LifeEngine engine = type.create();
+			double[] scores = new double[measureIterations];
+			
+			for (int i = -warmupIterations; i < measureIterations; i++) {
+				engine.load(cells);
+				
+				long generations = 0;
+				long startTime = System.nanoTime();
+				long elapsedTime;
+				do {
+					engine.step(TemporalLifeEngine.DEFAULT_DEPTH);
+					consume(engine.getGeneration());
+					generations += TemporalLifeEngine.DEFAULT_DEPTH;
+					elapsedTime = System.nanoTime() - startTime;
+				} while (elapsedTime < iterationMillis * 1000000);
+				
+				consume(engine.population());
+				if (i >= 0) {
+					scores[i] = generations / (elapsedTime / 1e9);
+				}
+			}
+			LifeEngine.release(engine);
+			report("blocking", type.name(), pattern, scores, "generations/s");
+		}
+	}
+	
+	/*
+	 * measures the time of one isAlive lookup, probing alive and dead cells around the pattern
+	 */
+	private void benchmarkLookup(EngineType type, String pattern, long[] cells) {
+		String name = "lookup";
+		if (!matches(name, type.name(), pattern)) {
+			return;
+		}
+		
+		LifeEngine engine = type.create();
+		engine.load(cells);
+		
+		//probe positions in and around the pattern, fixed up front so generating them is not measured
+		SplittableRandom random = new SplittableRandom(SOUP_SEED);
+		int[] xs = new int[LOOKUPS];
+		int[] ys = new int[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			xs[i] = random.nextInt(-16, 256 + 16);
+			ys[i] = random.nextInt(-16, 256 + 16);
+		}
+		
+		double[] scores = new double[measureIterations];
+		for (int i = -warmupIterations; i < measureIterations; i++) {
+			long lookups = 0;
+			long startTime = System.nanoTime();
+			long elapsedTime;
+			do {
+				long found = 0;
+				for (int j = 0; j < LOOKUPS; j++) {
+					if (engine.isAlive(xs[j], ys[j])) {
+						found++;
+					}
+				}
+				consume(found);
+				lookups += LOOKUPS;
+				elapsedTime = System.nanoTime() - startTime;
+			} while (elapsedTime < iterationMillis * 1000000);
+			
+			if (i >= 0) {
+				scores[i] = (double)elapsedTime / lookups;
+			}
+		}
+		LifeEngine.release(engine);
+		report(name, type.name(), pattern, scores, "ns/lookup");
+	}
+	
+	/*
+	 * measures how many MB/s of .state file are loaded and saved
+	 */
+	private void benchmarkFiles(String pattern, long[] cells) throws IOException {
+		File file = File.createTempFile("life-benchmark", ".state");
+		file.deleteOnExit();
+		
+		try {
+			StateFile.save(file.getPath(), cells);
+			double megabytes = file.length() / 1e6;
+			
+			if (matches("save", "-", pattern)) {
+				double[] scores = new double[measureIterations];
+				for (int i = -warmupIterations; i < measureIterations; i++) {
+					long files = 0;
+					long startTime = System.nanoTime();
+					long elapsedTime;
+					do {
+						consume(StateFile.save(file.getPath(), cells) ? 1 : 0);
+						files++;
+						elapsedTime = System.nanoTime() - startTime;
+					} while (elapsedTime < iterationMillis * 1000000);
+					
+					if (i >= 0) {
+						scores[i] = files * megabytes / (elapsedTime / 1e9);
+					}
+				}
+				report("save", "-", pattern, scores, "MB/s");
+			}
+			
+			if (matches("load", EngineType.SPARSE.name(), pattern)) {
+				LifeEngine engine = EngineType.SPARSE.create();
+				double[] scores = new double[measureIterations];
+				for (int i = -warmupIterations; i < measureIterations; i++) {
+					long files = 0;
+					long startTime = System.nanoTime();
+					long elapsedTime;
+					do {
+						StateFile.load(file.getPath(), engine);
+						consume(engine.population());
+						files++;
+						elapsedTime = System.nanoTime() - startTime;
+					} while (elapsedTime < iterationMillis * 1000000);
+					
+					if (i >= 0) {
+						scores[i] = files * megabytes / (elapsedTime / 1e9);
+					}
+				}
+				report("load", EngineType.SPARSE.name(), pattern, scores, "MB/s");
+			}
+		}
+		finally {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+	
+	/*
+	 * writes the mean and the standard deviation of the scores as one result line
+	 */
+	private void report(String name, String engine, String pattern, double[] scores, String unit) {
+		double mean = 0;
+		for (double score : scores) {
+			mean += score;
+		}
+		mean /= scores.length;
+		
+		double variance = 0;
+		for (double score : scores) {
+			variance += (score - mean) * (score - mean);
+		}
+		double error = scores.length > 1 ? Math.sqrt(variance / (scores.length - 1)) : 0;
+		
+		if (csv) {
+			out.println(String.format(Locale.ROOT, "%s,%s,%s,%.3f,%.3f,%s,%d",
+					name, engine, pattern, mean, error, unit, scores.length));
+		}
+		else {
+			out.println(String.format(Locale.ROOT,
+					"{\"benchmark\":\"%s\",\"engine\":\"%s\",\"pattern\":\"%s\",\"score\":%.3f,\"error\":%.3f,\"unit\":\"%s\",\"iterations\":%d}",
+					name, engine, pattern, mean, error, unit, scores.length));
+		}
+		out.flush();
+	}
+	
+	/*
+	 * adds a result to the sink, a volatile write the JIT has to keep along with the work that produced the result
+	 */
+	private static void consume(long result) {
+		sink += result;
+	}
+	
+	/*
+	 * returns whether a benchmark should run
+	 */
+	private boolean matches(String name, String engine, String pattern) {
+		return (name + " " + engine + " " + pattern).contains(filter);
+	}
+	
+	/*
+	 * returns the packed positions of the alive cells in a state file
+	 */
+	static long[] loadCells(String fileDirectory) {
+		LifeEngine engine = new SparseLifeEngine();
+		StateFile.load(fileDirectory, engine);
+		return engine.snapshot();
+	}
+	
+	/*
+	 * returns a size x size square of cells that are each alive with the given probability
+	 */
+	public static long[] randomSoup(int size, double density, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Long> cells = new ArrayList<Long>();
+		
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				if (random.nextDouble() < density) {
+					cells.add(Vector2D.pack(x, y));
+				}
+			}
+		}
+		
+		long[] packed = new long[cells.size()];
+		for (int i = 0; i < packed.length; i++) {
+			packed[i] = cells.get(i);
+		}
+		return packed;
+	}
+	
+	public static long getSink() {
+		return sink;
+	}
+}
@@ -0,0 +1,175 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * LifeEngine is the headless simulation API.
+ * An engine holds a universe of cells and steps it forward one generation at a time.
+ * Nothing in an engine depends on AWT or Swing, so engines can be run on a server,
+ * in a batch job or in a benchmark without a display. GameManager is only a view on top of one.
+ *
+ * Cells are addressed by integer (x, y) grid coordinates. Bulk transfers (load, snapshot)
+ * use positions packed into a single long with Vector2D.pack().
+ */
+
+public interface LifeEngine {
+	
+	/*
+	 * advances the universe by one generation
+	 */
+	void step();
+	
+	/*
+	 * advances the universe by the given number of generations
+	 */
+	default void step(long generations) {
+		for (long i = 0; i < generations; i++) {
+			step();
+		}
+	}
+	
+	/*
+	 * returns the number of generations stepped since the engine was created or last loaded
+	 */
+	long getGeneration();
+	
+	/*
+	 * adds generations to the generation count without stepping the universe.
+	 * Only correct when the universe is known to repeat after that many generations (see CycleDetector)
+	 */
+	void skipGenerations(long generations);
+	
+	/*
+	 * returns the number of alive cells
+	 */
+	long population();
+	
+	/*
+	 * returns the Zobrist hash of the alive cells: the XOR of CycleDetector.zobrist() of every alive cell.
+	 * Equal sets of cells have equal hashes on every engine but hashlife, which caches its own hash per node.
+	 * Engines that can update the hash on every birth and death return it without looking at the cells
+	 */
+	default long hash() {
+		long[] cells = snapshot();
+		long hash = 0;
+		for (int i = 0; i < cells.length; i++) {
+			hash ^= CycleDetector.zobrist(cells[i]);
+		}
+		return hash;
+	}
+	
+	/*
+	 * removes every cell from the universe and resets the generation count
+	 */
+	void clear();
+	
+	/*
+	 * sets the cell at (x, y) alive or dead
+	 */
+	void setAlive(int x, int y, boolean alive);
+	
+	/*
+	 * returns whether the cell at (x, y) is alive
+	 */
+	boolean isAlive(int x, int y);
+	
+	/*
+	 * sets the rule the universe is stepped with (Rule.CONWAY until set). The alive cells are kept
+	 */
+	void setRule(Rule rule);
+	
+	/*
+	 * returns the rule the universe is stepped with
+	 */
+	Rule getRule();
+	
+	/*
+	 * replaces the universe with the given alive cells (packed positions, see Vector2D.pack)
+	 */
+	default void load(long[] cells) {
+		clear();
+		for (int i = 0; i < cells.length; i++) {
+			setAlive(Vector2D.unpackX(cells[i]), Vector2D.unpackY(cells[i]), true);
+		}
+	}
+	
+	/*
+	 * tells the engine that a pattern of about width x height cells, with its top left cell at (0, 0), is about to be loaded.
+	 * Engines that can use it allocate their storage up front; the hint is only an estimate
+	 */
+	default void reserve(int width, int height) {
+	}
+	
+	/*
+	 * returns the packed positions of all alive cells (see Vector2D.pack)
+	 */
+	long[] snapshot();
+	
+	/*
+	 * returns the packed positions of the alive cells inside the rectangle of width x height cells with its top left cell at (left, top).
+	 * Used to draw only what is on screen; engines that can find those cells without looking at every alive cell do so
+	 */
+	default long[] snapshot(int left, int top, int width, int height) {
+		long[] cells = snapshot();
+		int count = 0;
+		for (int i = 0; i < cells.length; i++) {
+			if (contains(left, top, width, height, cells[i])) {
+				cells[count++] = cells[i];
+			}
+		}
+		return Arrays.copyOf(cells, count);
+	}
+	
+	/*
+	 * counts the alive cells of a grid of columns x rows square blocks, each blockSize x blockSize cells,
+	 * with the top left cell of the first block at (left, top). The count of a block goes to counts[row * columns + column].
+	 * Used to draw a zoomed out view; engines that can count a block without visiting its cells one by one do so
+	 */
+	default void countBlocks(int left, int top, int blockSize, int columns, int rows, int[] counts) {
+		Arrays.fill(counts, 0, columns * rows, 0);
+		long[] cells = snapshot(left, top, blockExtent(blockSize, columns), blockExtent(blockSize, rows));
+		for (int i = 0; i < cells.length; i++) {
+			long column = ((long)Vector2D.unpackX(cells[i]) - left) / blockSize;
+			long row = ((long)Vector2D.unpackY(cells[i]) - top) / blockSize;
+			counts[(int)(row * columns + column)]++;
+		}
+	}
+	
+	/*
+	 * returns whether the packed cell lies inside the rectangle of width x height cells with its top left cell at (left, top)
+	 */
+	static boolean contains(int left, int top, int width, int height, long cell) {
+		long x = (long)Vector2D.unpackX(cell) - left;
+		long y = (long)Vector2D.unpackY(cell) - top;
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+	
+	/*
+	 * returns the width in cells of the given number of blocks, capped to the largest int
+	 */
+	static int blockExtent(int blockSize, int blocks) {
+		return (int)Math.min(Integer.MAX_VALUE, (long)blockSize * blocks);
+	}
+	
+	/*
+	 * releases what an engine that is no longer used holds outside the heap (threads, off-heap memory),
+	 * if it has anything to release; such engines implement AutoCloseable
+	 */
+	static void release(LifeEngine engine) {
+		if (engine instanceof AutoCloseable) {
+			try {
+				((AutoCloseable)engine).close();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/*
+	 * gives the engine metrics to report the time of each phase of a generation to, or null to stop reporting.
+	 * Engines that cannot time their phases ignore it
+	 */
+	default void setMetrics(SimulationMetrics metrics) {
+	}
+}
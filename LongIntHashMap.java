@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * A hash map from long keys to int values that stores everything in primitive arrays.
+ * It is used for packed cell positions (see Vector2D.pack) in the hot loops of the engines,
+ * where boxing every key into a Long would allocate on every lookup.
+ *
+ * A value of 0 means "no entry", so zero values are never stored.
+ * Collisions are resolved by linear probing. clear() keeps the arrays,
+ * so a map that is reused every generation stops allocating once it has grown big enough.
+ */
+
+public class LongIntHashMap {
+	//constants
+	private static final int MIN_CAPACITY = 16;	//smallest number of slots
+	
+	//variables
+	private long[] keys;		//key of every slot
+	private int[] values;		//value of every slot, 0 for an empty slot
+	private int size;			//number of entries
+	private int mask;			//capacity - 1, capacity is always a power of two
+	
+	/*
+	 * constructor creates an empty map with room for the expected number of entries
+	 */
+	public LongIntHashMap(int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+	
+	public LongIntHashMap() {
+		this(MIN_CAPACITY);
+	}
+	
+	/*
+	 * returns the value of the key, or 0 if the key is not in the map
+	 */
+	public int get(long key) {
+		for (int slot = slotOf(key); values[slot] != 0; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return values[slot];
+			}
+		}
+		return 0;
+	}
+	
+	/*
+	 * returns whether the key is in the map
+	 */
+	public boolean containsKey(long key) {
+		return get(key) != 0;
+	}
+	
+	/*
+	 * sets the value of the key. Setting a value of 0 removes the key
+	 */
+	public void put(long key, int value) {
+		if (value == 0) {
+			remove(key);
+			return;
+		}
+		
+		int slot = findSlot(key);
+		if (values[slot] == 0) {
+			keys[slot] = key;
+			size++;
+		}
+		values[slot] = value;
+		growIfFull();
+	}
+	
+	/*
+	 * adds delta to the value of the key (a missing key counts as 0) and returns the new value.
+	 * A result of 0 removes the key
+	 */
+	public int add(long key, int delta) {
+		int slot = findSlot(key);
+		if (values[slot] == 0) {
+			keys[slot] = key;
+			size++;
+		}
+		int value = values[slot] += delta;
+		if (value == 0) {
+			removeSlot(slot);
+		}
+		else {
+			growIfFull();
+		}
+		return value;
+	}
+	
+	/*
+	 * removes the key from the map
+	 */
+	public void remove(long key) {
+		int slot = findSlot(key);
+		if (values[slot] != 0) {
+			removeSlot(slot);
+		}
+	}
+	
+	/*
+	 * empties the slot, which holds an entry
+	 */
+	private void removeSlot(int slot) {
+		//shift back the following entries of the probe run so that no lookup stops early
+		int gap = slot;
+		for (int next = (gap + 1) & mask; values[next] != 0; next = (next + 1) & mask) {
+			int home = slotOf(keys[next]);
+			
+			//the entry can move into the gap if the gap lies between its home slot and its current slot
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		values[gap] = 0;
+		size--;
+	}
+	
+	/*
+	 * removes all entries, keeping the storage for reuse
+	 */
+	public void clear() {
+		if (size != 0) {
+			Arrays.fill(values, 0);
+			size = 0;
+		}
+	}
+	
+	/*
+	 * returns the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/*
+	 * returns the number of slots. Entries are visited with keyAt and valueAt for every slot below capacity
+	 */
+	public int capacity() {
+		return values.length;
+	}
+	
+	/*
+	 * returns the key in the slot. Only meaningful if valueAt(slot) is not 0
+	 */
+	public long keyAt(int slot) {
+		return keys[slot];
+	}
+	
+	/*
+	 * returns the value in the slot, 0 if the slot is empty
+	 */
+	public int valueAt(int slot) {
+		return values[slot];
+	}
+	
+	/*
+	 * returns the slot holding the key, or the empty slot where it would be inserted
+	 */
+	private int findSlot(long key) {
+		int slot = slotOf(key);
+		while (values[slot] != 0 && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	
+	/*
+	 * returns the home slot of the key. The bits of the key are mixed (murmur3 finaliser)
+	 * since neighbouring cells only differ in a few low bits
+	 */
+	private int slotOf(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int)key & mask;
+	}
+	
+	/*
+	 * doubles the capacity once the map is more than half full
+	 */
+	private void growIfFull() {
+		if (size * 2 <= values.length) {
+			return;
+		}
+		
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(oldValues.length * 2);
+		
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != 0) {
+				int slot = findSlot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+	
+	/*
+	 * creates empty storage with the given number of slots
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+	
+	/*
+	 * returns the smallest power of two capacity that keeps the map at most half full
+	 */
+	private static int capacityFor(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < expectedSize * 2L) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+}
@@ -0,0 +1,75 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * A growable list of longs stored in a primitive array, used for lists of packed cell positions
+ * (see Vector2D.pack) that the engines refill every generation. clear() keeps the array,
+ * so a reused list stops allocating once it has grown big enough.
+ */
+
+public class LongList {
+	//constants
+	private static final int MIN_CAPACITY = 16;	//initial length of the array
+	
+	//variables
+	private long[] values;	//the elements, followed by unused space
+	private int size;		//number of elements
+	
+	public LongList() {
+		values = new long[MIN_CAPACITY];
+	}
+	
+	/*
+	 * adds the value to the end of the list
+	 */
+	public void add(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+	
+	/*
+	 * returns the element at the index
+	 */
+	public long get(int index) {
+		return values[index];
+	}
+	
+	/*
+	 * returns the number of elements
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/*
+	 * removes all elements, keeping the array for reuse
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/*
+	 * sorts the elements in ascending order
+	 */
+	public void sort() {
+		Arrays.sort(values, 0, size);
+	}
+	
+	/*
+	 * returns a copy of the elements
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+	
+	/*
+	 * returns whether both lists hold the same elements in the same order
+	 */
+	public boolean sameElements(LongList other) {
+		return size == other.size && Arrays.equals(values, 0, size, other.values, 0, size);
+	}
+}
@@ -0,0 +1,549 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * OffHeapLifeEngine runs a torus of a fixed size with its cells outside the Java heap,
+ * so a board of billions of cells needs no more heap than a few rows and puts no pressure on the GC.
+ * The cells are stored like the rows of the dense bitboard, one bit per cell and 64 cells per long,
+ * so the width is rounded up to a multiple of 64; the current generation and the one being computed are
+ * kept in two planes, and the board is centred on (0, 0) like BoundedLifeEngine.
+ *
+ * The planes are direct ByteBuffers, or with map() regions of a memory mapped file. A buffer is indexed
+ * by an int, so each plane is split into chunks of whole rows of at most CHUNK_BYTES.
+ * A mapped board can be checkpointed with flush(); mapping the same file again resumes from the last checkpoint.
+ * The operating system may write a changed page of a mapping back at any time, so the checkpoint must never be
+ * written to: a mapped board has a third plane, and the plane of the last checkpoint is only ever read. Steps
+ * go back and forth between the other two, and setting a cell on the checkpoint copies it to a free plane first.
+ * flush() forces the current plane to disk and only then makes it the checkpoint by writing a record of its plane,
+ * generation, population and rule to the header. The header holds two records, each with a sequence number and a checksum,
+ * and flush() overwrites the older one, so a crash at any point leaves the last complete checkpoint to resume from.
+ *
+ * The Zobrist hash is computed from the whole board the first time hash() is called, and from then on the sweep keeps it
+ * up to date from the bits of each row that flip, as DenseLifeEngine does, so it costs no extra pass over the planes.
+ *
+ * The engine owns its buffers until close() is called, after which it must not be used.
+ * Java 17 cannot unmap or free a buffer on demand, so close() drops the buffers and the memory is
+ * returned once they are collected.
+ */
+
+public class OffHeapLifeEngine implements LifeEngine, AutoCloseable {
+	//constants
+	private static final long MAGIC = 0x4C4946454F464633L;	//"3FFOEFIL" read as little endian, the first 8 bytes of a board file
+	private static final int HEADER_BYTES = 192;			//bytes before the planes in a board file: the size of the board, then two records
+	private static final int RECORD_BYTES = 64;				//bytes of a checkpoint record in the header
+	private static final int CHECKSUM = 56;					//offset in a record of the checksum of the bytes before it
+	private static final int MAX_RULE_BYTES = 24;			//bytes of a record that hold the rule
+	private static final int MAPPED_PLANES = 3;				//planes of a mapped board: the checkpoint and two to step between
+	private static final long CHUNK_BYTES = 1L << 30;		//most bytes of one buffer of a plane
+	
+	//variables
+	private final int width;				//number of columns, a multiple of 64
+	private final int height;				//number of rows
+	private final int wordsPerRow;			//width / 64
+	private final int rowsPerChunk;			//number of rows in each buffer of a plane
+	private final int originX;				//plane x coordinate of the left most column
+	private final int originY;				//plane y coordinate of the top row
+	private ByteBuffer header;				//the header of the board file, null if the board is not mapped
+	private ByteBuffer[][] buffers;			//the chunks of every plane
+	private LongBuffer[][] planes;			//the same chunks, read and written a row of longs at a time
+	private int current;					//index of the plane holding the current generation
+	private int checkpoint;					//index of the plane holding the last checkpoint, never written to. -1 if none
+	private long sequence;					//number of the last checkpoint record written
+	private long[] above;					//the row above the row being computed, wrapped
+	private long[] row;						//the row being computed
+	private long[] below;					//the row below the row being computed, wrapped
+	private final long[] result;			//the next generation of row
+	private long population;				//number of alive cells
+	private long hash;						//Zobrist hash of the alive cells, up to date while hashing
+	private boolean hashing;				//whether hash is kept up to date, from the first call of hash() on
+	private long generation;				//number of generations stepped since the last clear
+	private Rule rule;						//the rule the universe is stepped with
+	private boolean resumed;				//whether the board was read back from a checkpoint
+	private SimulationMetrics metrics;		//receives the time of each phase, null if not measured
+	
+	/*
+	 * constructor creates an empty torus of at least width x height cells in direct memory
+	 */
+	public OffHeapLifeEngine(int width, int height) {
+		this(width, height, true);
+	}
+	
+	/*
+	 * constructor lays out a board of at least width x height cells, allocating its planes in direct memory if asked
+	 */
+	private OffHeapLifeEngine(int width, int height, boolean direct) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("board size must be positive: " + width + "x" + height);
+		}
+		
+		this.wordsPerRow = (int)((width + 63L) / 64);
+		this.width = wordsPerRow * 64;
+		this.height = height;
+		this.rowsPerChunk = (int)Math.min(height, Math.max(1, CHUNK_BYTES / (wordsPerRow * 8L)));
+		this.originX = -(this.width / 2);
+		this.originY = -(height / 2);
+		this.checkpoint = -1;
+		
+		if (direct) {
+			int chunks = (height + rowsPerChunk - 1) / rowsPerChunk;
+			buffers = new ByteBuffer[2][chunks];
+			for (int p = 0; p < 2; p++) {
+				for (int c = 0; c < chunks; c++) {
+					buffers[p][c] = ByteBuffer.allocateDirect((int)chunkBytes(c));
+				}
+			}
+			viewPlanes();
+		}
+		
+		above = new long[wordsPerRow];
+		row = new long[wordsPerRow];
+		below = new long[wordsPerRow];
+		result = new long[wordsPerRow];
+		rule = Rule.CONWAY;
+	}
+	
+	/*
+	 * returns a torus of at least width x height cells kept in the given file. If the file holds a checkpoint
+	 * of a board of the same size it is resumed (see isResumed), and a new or empty file is made an empty board.
+	 * Throws an IOException rather than overwrite a file that is not a board of that size
+	 */
+	public static OffHeapLifeEngine map(Path file, int width, int height) throws IOException {
+		long wordsPerRow = (width + 63L) / 64;
+		long fileBytes = HEADER_BYTES + MAPPED_PLANES * height * wordsPerRow * 8;
+		
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			boolean resume = channel.size() > 0;
+			if (resume) {
+				ByteBuffer existing = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+				channel.read(existing, 0);
+				if (channel.size() != fileBytes || existing.getLong(0) != MAGIC
+						|| existing.getInt(8) != wordsPerRow * 64 || existing.getInt(12) != height) {
+					throw new IOException(file + " is not a board of " + wordsPerRow * 64 + "x" + height + " cells");
+				}
+			}
+			else {
+				channel.write(ByteBuffer.wrap(new byte[1]), fileBytes - 1);	//the board starts out empty
+			}
+			
+			//the mappings stay valid once the channel is closed
+			OffHeapLifeEngine engine = new OffHeapLifeEngine(width, height, false);
+			engine.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			engine.mapPlanes(channel);
+			if (resume) {
+				if (!engine.readCheckpoint()) {
+					throw new IOException(file + " holds no complete checkpoint");
+				}
+			}
+			else {
+				engine.header.putLong(0, MAGIC);
+				engine.header.putInt(8, engine.width);
+				engine.header.putInt(12, height);
+				engine.writeCheckpoint();	//the empty board in plane 0 is the first checkpoint
+			}
+			return engine;
+		}
+	}
+	
+	/*
+	 * maps both planes to their place in the file of the channel, after the header
+	 */
+	private void mapPlanes(FileChannel channel) throws IOException {
+		int chunks = (height + rowsPerChunk - 1) / rowsPerChunk;
+		long planeBytes = (long)height * wordsPerRow * 8;
+		buffers = new ByteBuffer[MAPPED_PLANES][chunks];
+		for (int p = 0; p < MAPPED_PLANES; p++) {
+			for (int c = 0; c < chunks; c++) {
+				long position = HEADER_BYTES + p * planeBytes + (long)c * rowsPerChunk * wordsPerRow * 8;
+				buffers[p][c] = channel.map(FileChannel.MapMode.READ_WRITE, position, chunkBytes(c));
+			}
+		}
+		viewPlanes();
+	}
+	
+	/*
+	 * returns the number of bytes in chunk c of a plane
+	 */
+	private long chunkBytes(int c) {
+		return (long)Math.min(rowsPerChunk, height - c * rowsPerChunk) * wordsPerRow * 8;
+	}
+	
+	/*
+	 * creates the views of the buffers as longs
+	 */
+	private void viewPlanes() {
+		planes = new LongBuffer[buffers.length][buffers[0].length];
+		for (int p = 0; p < buffers.length; p++) {
+			for (int c = 0; c < buffers[p].length; c++) {
+				planes[p][c] = buffers[p][c].order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+			}
+		}
+	}
+	
+	/*
+	 * advances the universe by one generation
+	 */
+	public void step() {
+		checkOpen();
+		long start = metrics != null ? System.nanoTime() : 0;
+		int target = freePlane();
+		sweep(target);
+		current = target;
+		generation++;
+		
+		if (metrics != null) {
+			metrics.addTime(SimulationMetrics.Phase.UPDATE, System.nanoTime() - start);
+			metrics.setTrackedCells((long)width * height);
+		}
+	}
+	
+	/*
+	 * computes the next generation into the target plane, one row at a time.
+	 * Only three rows of the current generation and the row being written are on the heap
+	 */
+	private void sweep(int target) {
+		boolean conway = rule.isConway();
+		int birth = rule.getBirth();
+		int survival = rule.getSurvival();
+		int last = wordsPerRow - 1;
+		long alive = 0;
+		
+		readRow(current, height - 1, above);
+		readRow(current, 0, row);
+		for (int r = 0; r < height; r++) {
+			readRow(current, r + 1 < height ? r + 1 : 0, below);
+			
+			for (int w = 0; w <= last; w++) {
+				int west = w > 0 ? w - 1 : last;
+				int east = w < last ? w + 1 : 0;
+				if (conway) {
+					result[w] = DenseLifeEngine.nextWord(	above[west], above[w], above[east],
+															row[west], row[w], row[east],
+															below[west], below[w], below[east]);
+				}
+				else {
+					result[w] = DenseLifeEngine.nextWord(	above[west], above[w], above[east],
+															row[west], row[w], row[east],
+															below[west], below[w], below[east], birth, survival);
+				}
+				alive += Long.bitCount(result[w]);
+			}
+			writeRow(target, r, result);
+			if (hashing) {
+				hash ^= hashFlips(r, row, result);
+			}
+			
+			//move down a row
+			long[] temp = above;
+			above = row;
+			row = below;
+			below = temp;
+		}
+		population = alive;
+	}
+	
+	/*
+	 * returns the Zobrist hash of the cells of row r that differ between the words from and to
+	 */
+	private long hashFlips(int r, long[] from, long[] to) {
+		long flips = 0;
+		for (int w = 0; w < wordsPerRow; w++) {
+			long word = from[w] ^ to[w];
+			while (word != 0) {
+				int bit = Long.numberOfTrailingZeros(word);
+				flips ^= CycleDetector.zobrist(Vector2D.pack(originX + w * 64 + bit, originY + r));
+				word &= word - 1;
+			}
+		}
+		return flips;
+	}
+	
+	/*
+	 * copies row r of the plane into words
+	 */
+	private void readRow(int plane, int r, long[] words) {
+		planes[plane][r / rowsPerChunk].get((r % rowsPerChunk) * wordsPerRow, words);
+	}
+	
+	/*
+	 * copies words into row r of the plane
+	 */
+	private void writeRow(int plane, int r, long[] words) {
+		planes[plane][r / rowsPerChunk].put((r % rowsPerChunk) * wordsPerRow, words);
+	}
+	
+	/*
+	 * returns a plane that neither holds the current generation nor the checkpoint, to write the next generation to
+	 */
+	private int freePlane() {
+		int plane = 0;
+		while (plane == current || plane == checkpoint) {
+			plane++;
+		}
+		return plane;
+	}
+	
+	/*
+	 * checkpoints a mapped board: forces the current generation to the file, then writes a record making it the checkpoint,
+	 * so no record ever names cells that are not on disk yet. From then on the plane is only read.
+	 * Does nothing for a board in direct memory
+	 */
+	public void flush() {
+		checkOpen();
+		if (header == null) {
+			return;
+		}
+		
+		for (ByteBuffer buffer : buffers[current]) {
+			((MappedByteBuffer)buffer).force();
+		}
+		writeCheckpoint();
+	}
+	
+	/*
+	 * releases the buffers. The engine cannot be used afterwards; a mapped board keeps its last checkpoint
+	 */
+	public void close() {
+		buffers = null;
+		planes = null;
+		header = null;
+	}
+	
+	/*
+	 * makes the current plane the checkpoint: writes its record over the older of the two records and forces the header.
+	 * A record torn by a crash fails its checksum, and the other record still names a plane that has not been written since
+	 */
+	private void writeCheckpoint() {
+		sequence++;
+		int record = recordOffset(sequence);
+		byte[] ruleBytes = rule.toString().getBytes(StandardCharsets.US_ASCII);
+		header.putLong(record, sequence);
+		header.putLong(record + 8, generation);
+		header.putLong(record + 16, population);
+		header.putInt(record + 24, current);
+		header.putInt(record + 28, Math.min(ruleBytes.length, MAX_RULE_BYTES));
+		header.put(record + 32, ruleBytes, 0, Math.min(ruleBytes.length, MAX_RULE_BYTES));
+		header.putLong(record + CHECKSUM, checksum(record));
+		((MappedByteBuffer)header).force();
+		checkpoint = current;
+	}
+	
+	/*
+	 * reads back the newest complete record written by writeCheckpoint(). Returns false if neither record is complete
+	 */
+	private boolean readCheckpoint() {
+		int record = -1;
+		for (int r = HEADER_BYTES - 2 * RECORD_BYTES; r < HEADER_BYTES; r += RECORD_BYTES) {
+			int plane = header.getInt(r + 24);
+			boolean complete = header.getLong(r + CHECKSUM) == checksum(r) && plane >= 0 && plane < MAPPED_PLANES
+					&& header.getInt(r + 28) >= 0 && header.getInt(r + 28) <= MAX_RULE_BYTES;
+			if (complete && (record < 0 || header.getLong(r) > header.getLong(record))) {
+				record = r;
+			}
+		}
+		if (record < 0) {
+			return false;
+		}
+		
+		byte[] ruleBytes = new byte[header.getInt(record + 28)];
+		header.get(record + 32, ruleBytes);
+		sequence = header.getLong(record);
+		generation = header.getLong(record + 8);
+		population = header.getLong(record + 16);
+		current = header.getInt(record + 24);
+		checkpoint = current;
+		rule = Rule.parse(new String(ruleBytes, StandardCharsets.US_ASCII));
+		resumed = true;
+		return true;
+	}
+	
+	/*
+	 * returns the offset in the header of the record a checkpoint with the given sequence number is written to
+	 */
+	private static int recordOffset(long sequence) {
+		return HEADER_BYTES - (int)(2 - (sequence & 1)) * RECORD_BYTES;
+	}
+	
+	/*
+	 * returns the CRC32 of the bytes of the record before its checksum
+	 */
+	private long checksum(int record) {
+		ByteBuffer bytes = header.duplicate();
+		bytes.limit(record + CHECKSUM).position(record);
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		return crc.getValue();
+	}
+	
+	/*
+	 * throws an IllegalStateException once the engine has been closed
+	 */
+	private void checkOpen() {
+		if (planes == null) {
+			throw new IllegalStateException("the off-heap board has been closed");
+		}
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public void skipGenerations(long generations) {
+		generation += generations;
+	}
+	
+	public long population() {
+		return population;
+	}
+	
+	/*
+	 * returns the Zobrist hash kept up to date by the sweep. The first call computes it a row at a time
+	 * without copying the cells, and starts keeping it up to date
+	 */
+	public long hash() {
+		checkOpen();
+		if (!hashing) {
+			Arrays.fill(result, 0);
+			hash = 0;
+			for (int r = 0; r < height; r++) {
+				readRow(current, r, row);
+				hash ^= hashFlips(r, result, row);
+			}
+			hashing = true;
+		}
+		return hash;
+	}
+	
+	/*
+	 * empties every plane but the checkpoint
+	 */
+	public void clear() {
+		checkOpen();
+		Arrays.fill(result, 0);
+		for (int p = 0; p < planes.length; p++) {
+			if (p != checkpoint) {
+				for (int r = 0; r < height; r++) {
+					writeRow(p, r, result);
+				}
+			}
+		}
+		if (current == checkpoint) {
+			current = freePlane();
+		}
+		population = 0;
+		generation = 0;
+		hash = 0;
+	}
+	
+	/*
+	 * sets a cell. The position wraps onto the board
+	 */
+	public void setAlive(int x, int y, boolean alive) {
+		checkOpen();
+		int column = (int)Math.floorMod((long)x - originX, (long)width);
+		int r = (int)Math.floorMod((long)y - originY, (long)height);
+		LongBuffer chunk = planes[current][r / rowsPerChunk];
+		int index = (r % rowsPerChunk) * wordsPerRow + column / 64;
+		long bit = 1L << (column % 64);
+		long word = chunk.get(index);
+		
+		if (((word & bit) != 0) != alive) {
+			if (current == checkpoint) {
+				copyCheckpoint();
+				chunk = planes[current][r / rowsPerChunk];
+			}
+			chunk.put(index, word ^ bit);
+			population += alive ? 1 : -1;
+			if (hashing) {
+				hash ^= CycleDetector.zobrist(Vector2D.pack(originX + column, originY + r));	//the cell it wrapped onto
+			}
+		}
+	}
+	
+	/*
+	 * copies the checkpoint to a free plane and makes that the current generation, so it can be changed
+	 */
+	private void copyCheckpoint() {
+		int copy = freePlane();
+		for (int r = 0; r < height; r++) {
+			readRow(current, r, row);
+			writeRow(copy, r, row);
+		}
+		current = copy;
+	}
+	
+	public boolean isAlive(int x, int y) {
+		checkOpen();
+		int column = (int)Math.floorMod((long)x - originX, (long)width);
+		int r = (int)Math.floorMod((long)y - originY, (long)height);
+		return (planes[current][r / rowsPerChunk].get((r % rowsPerChunk) * wordsPerRow + column / 64) & (1L << (column % 64))) != 0;
+	}
+	
+	public void setRule(Rule rule) {
+		this.rule = rule;
+	}
+	
+	public Rule getRule() {
+		return rule;
+	}
+	
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public long[] snapshot() {
+		return snapshot(originX, originY, width, height);
+	}
+	
+	/*
+	 * returns the alive cells inside the rectangle, only reading the words of the board that overlap it
+	 */
+	public long[] snapshot(int left, int top, int width, int height) {
+		checkOpen();
+		LongList inside = new LongList();
+		int firstRow = (int)Math.max(0, (long)top - originY);
+		int lastRow = (int)Math.min(this.height, (long)top + height - originY);
+		int firstWord = (int)Math.max(0, Math.floorDiv((long)left - originX, 64));
+		int lastWord = (int)Math.min(wordsPerRow, Math.floorDiv((long)left + width - originX + 63, 64));
+		
+		for (int r = firstRow; r < lastRow && firstWord < lastWord; r++) {
+			planes[current][r / rowsPerChunk].get((r % rowsPerChunk) * wordsPerRow + firstWord, row, firstWord, lastWord - firstWord);
+			for (int w = firstWord; w < lastWord; w++) {
+				long word = row[w] & DenseLifeEngine.columnMask((long)left - originX - w * 64L, width);
+				while (word != 0) {
+					int bit = Long.numberOfTrailingZeros(word);
+					inside.add(Vector2D.pack(originX + w * 64 + bit, originY + r));
+					word &= word - 1;
+				}
+			}
+		}
+		return inside.toArray();
+	}
+	
+	//getters
+	public int getWidth() {
+		return width;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+	
+	/*
+	 * returns whether the board was resumed from a checkpoint in its file by map()
+	 */
+	public boolean isResumed() {
+		return resumed;
+	}
+}
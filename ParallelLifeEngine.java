@@ -0,0 +1,108 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * ParallelLifeEngine steps a DenseLifeEngine board on all cores.
+ * The board is split into tiles which are computed by the workers of a ForkJoinPool.
+ * Every worker only reads the current generation and only writes its own tile of the next
+ * generation, so workers never race and the result is bit-identical to DenseLifeEngine.
+ * The workers belong to the engine: close() stops them once the engine is no longer used.
+ */
+
+public class ParallelLifeEngine extends DenseLifeEngine implements AutoCloseable {
+	//constants
+	private static final int TILE_ROWS = 64;		//height of a tile in rows
+	private static final int TILE_WORDS = 16;		//width of a tile in words (1024 cells)
+	
+	//variables
+	private final ForkJoinPool pool;				//the workers that step the tiles
+	
+	/*
+	 * constructor creates an empty universe stepped by one thread per core,
+	 * or by the number of threads in the life.threads system property
+	 */
+	public ParallelLifeEngine() {
+		this(Integer.getInteger("life.threads", Runtime.getRuntime().availableProcessors()));
+	}
+	
+	/*
+	 * constructor creates an empty universe stepped by the given number of threads
+	 */
+	public ParallelLifeEngine(int threads) {
+		super();
+		pool = new ForkJoinPool(threads);
+	}
+	
+	/*
+	 * computes the rows [fromRow, toRow) of the next generation, split into tiles across the pool
+	 */
+	protected void stepRows(int fromRow, int toRow) {
+		if ((toRow - fromRow) <= TILE_ROWS && wordsPerRow <= TILE_WORDS) {
+			//a single tile is not worth handing to the pool
+			super.stepRows(fromRow, toRow);
+			return;
+		}
+		TileTask task = new TileTask(fromRow, toRow, 0, wordsPerRow);
+		pool.invoke(task);
+		hash ^= task.flips;
+	}
+	
+	/*
+	 * Steps a rectangle of the board, splitting it in half until it is no bigger than a tile.
+	 * The hashes of the cells that flipped in both halves are combined once they are done, so workers share no hash
+	 */
+	private class TileTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final int fromRow, toRow;	//rows [fromRow, toRow) of the rectangle
+		private final int fromWord, toWord;	//words [fromWord, toWord) of the rectangle
+		private long flips;					//Zobrist hash of the cells of the rectangle that flipped, set by compute()
+		
+		TileTask(int fromRow, int toRow, int fromWord, int toWord) {
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+			this.fromWord = fromWord;
+			this.toWord = toWord;
+		}
+		
+		protected void compute() {
+			int height = toRow - fromRow;
+			int width = toWord - fromWord;
+			
+			if (height > TILE_ROWS && height * TILE_WORDS >= width * TILE_ROWS) {
+				int middle = fromRow + height / 2;
+				split(new TileTask(fromRow, middle, fromWord, toWord), new TileTask(middle, toRow, fromWord, toWord));
+			}
+			else if (width > TILE_WORDS) {
+				int middle = fromWord + width / 2;
+				split(new TileTask(fromRow, toRow, fromWord, middle), new TileTask(fromRow, toRow, middle, toWord));
+			}
+			else {
+				flips = stepTile(fromRow, toRow, fromWord, toWord);
+			}
+		}
+		
+		/*
+		 * steps both halves in parallel and combines the hashes of their flipped cells
+		 */
+		private void split(TileTask first, TileTask second) {
+			invokeAll(first, second);
+			flips = first.flips ^ second.flips;
+		}
+	}
+	
+	/*
+	 * stops the workers. The engine must not be stepped afterwards
+	 */
+	public void close() {
+		pool.shutdown();
+	}
+	
+	//getters
+	public int getThreads() {
+		return pool.getParallelism();
+	}
+}
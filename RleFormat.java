@@ -0,0 +1,200 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * Reads and writes the standard run length encoded (RLE) pattern format.
+ * A file has optional '#' comment lines, a header line "x = width, y = height, rule = B3/S23"
+ * (the rule is given to the engine) and then the cells as runs: "3o" is three alive cells, "2b" two dead cells,
+ * "$" ends a row and "!" ends the pattern.
+ */
+
+public class RleFormat {
+	//constants
+	private static final int MAX_LINE_LENGTH = 70;	//lines of the pattern are wrapped at this length
+	
+	/*
+	 * loads the pattern into the engine, with the top left of the pattern at (0, 0)
+	 */
+	public static void load(String fileDirectory, LifeEngine engine, StateFile.ProgressListener listener) throws IOException {
+		long totalBytes = Files.size(Paths.get(fileDirectory));
+		
+		try (StateFile.CountingInputStream in = new StateFile.CountingInputStream(Files.newInputStream(Paths.get(fileDirectory)), totalBytes, listener)) {
+			//header: skip comments, read the size from the "x = " line
+			int c = in.read();
+			while (c == '#' || c == 'x' || c == '\r' || c == '\n' || c == ' ') {
+				if (c == 'x') {
+					readHeader(in, engine);
+				}
+				else if (c == '#') {
+					skipLine(in);
+				}
+				c = in.read();
+			}
+			
+			//body: the runs of cells
+			int x = 0;		//column of the next cell
+			int y = 0;		//row of the next cell
+			int count = 0;	//run count being read, 0 if none was given
+			
+			for (; c != -1 && c != '!'; c = in.read()) {
+				if (c >= '0' && c <= '9') {
+					count = count * 10 + (c - '0');
+					continue;
+				}
+				
+				int run = count == 0 ? 1 : count;
+				if (c == 'b' || c == '.') {
+					x += run;
+				}
+				else if (c == '$') {
+					y += run;
+					x = 0;
+				}
+				else if (Character.isLetter(c)) {
+					//'o' is an alive cell; other letters are states of multi state rules, also treated as alive
+					for (int i = 0; i < run; i++) {
+						engine.setAlive(x++, y, true);
+					}
+				}
+				else {
+					continue;	//whitespace between runs
+				}
+				count = 0;
+			}
+		}
+	}
+	
+	/*
+	 * saves the cells of a pattern run under the rule, normalised so the top left of their bounds is (0, 0)
+	 */
+	public static void save(String fileDirectory, long[] cells, Rule rule) throws IOException {
+		int[] bounds = StateFile.getBounds(cells);
+		long[] sorted = StateFile.sortByRow(cells, bounds);
+		
+		try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(Paths.get(fileDirectory)));
+				Writer out = new OutputStreamWriter(stream, StandardCharsets.US_ASCII)) {
+			int width = cells.length == 0 ? 0 : bounds[2] + 1;
+			int height = cells.length == 0 ? 0 : bounds[3] + 1;
+			out.write("x = " + width + ", y = " + height + ", rule = " + rule + "\n");
+			
+			LineWrapper line = new LineWrapper(out);
+			int row = 0;	//row of the last written cell
+			int x = 0;		//column after the last written cell
+			
+			for (int i = 0; i < sorted.length; ) {
+				int cellRow = (int)(sorted[i] >>> 32);
+				int column = (int)sorted[i];
+				
+				//end the rows up to the row of this cell
+				if (cellRow > row) {
+					line.write(cellRow - row, '$');
+					row = cellRow;
+					x = 0;
+				}
+				
+				//dead cells before this one, then the run of alive cells starting at it
+				if (column > x) {
+					line.write(column - x, 'b');
+				}
+				int run = 1;
+				while (i + run < sorted.length && sorted[i + run] == sorted[i] + run && (int)(sorted[i + run] >>> 32) == cellRow) {
+					run++;
+				}
+				line.write(run, 'o');
+				
+				x = column + run;
+				i += run;
+			}
+			line.write(1, '!');
+			out.write("\n");
+		}
+	}
+	
+	/*
+	 * reads the rest of the "x = width, y = height, ..." header line and tells the engine the size
+	 */
+	private static void readHeader(InputStream in, LifeEngine engine) throws IOException {
+		String header = "x" + readLine(in);
+		int width = 0;
+		int height = 0;
+		
+		for (String field : header.split(",")) {
+			String[] parts = field.split("=");
+			if (parts.length == 2) {
+				String key = parts[0].trim();
+				String value = parts[1].trim();
+				if (key.equals("x")) {
+					width = Integer.parseInt(value);
+				}
+				else if (key.equals("y")) {
+					height = Integer.parseInt(value);
+				}
+				else if (key.equals("rule")) {
+					try {
+						engine.setRule(Rule.parse(value));
+					} catch (IllegalArgumentException e) {
+						throw new IOException("unsupported rule: " + value, e);
+					}
+				}
+			}
+		}
+		engine.reserve(width, height);
+	}
+	
+	/*
+	 * reads up to the end of the line and returns what was read
+	 */
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		for (int c = in.read(); c != -1 && c != '\n'; c = in.read()) {
+			if (c != '\r') {
+				line.append((char)c);
+			}
+		}
+		return line.toString();
+	}
+	
+	/*
+	 * skips up to the end of the line
+	 */
+	private static void skipLine(InputStream in) throws IOException {
+		for (int c = in.read(); c != -1 && c != '\n'; c = in.read()) {
+		}
+	}
+	
+	/*
+	 * Writes runs, starting a new line before a run would pass MAX_LINE_LENGTH
+	 */
+	private static class LineWrapper {
+		private final Writer out;	//where the runs are written
+		private int lineLength;		//characters on the current line
+		
+		LineWrapper(Writer out) {
+			this.out = out;
+		}
+		
+		/*
+		 * writes a run of count tags, leaving the count out when it is 1
+		 */
+		void write(int count, char tag) throws IOException {
+			String run = count == 1 ? String.valueOf(tag) : count + String.valueOf(tag);
+			
+			if (lineLength + run.length() > MAX_LINE_LENGTH) {
+				out.write("\n");
+				lineLength = 0;
+			}
+			out.write(run);
+			lineLength += run.length();
+		}
+	}
+}
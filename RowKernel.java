@@ -0,0 +1,35 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * A RowKernel computes the next generation of a run of words of one bitboard row (see DenseLifeEngine).
+ * create() picks the fastest kernel this JVM can run: VectorRowKernel when the jdk.incubator.vector
+ * module is present (java --add-modules jdk.incubator.vector), otherwise ScalarRowKernel.
+ * VectorRowKernel is only loaded by reflection and lives in vector/, compiled separately by build.sh,
+ * so nothing else depends on the incubator module either to compile or to run.
+ * -Dlife.kernel=scalar forces the scalar kernel.
+ */
+
+public interface RowKernel {
+	
+	/*
+	 * computes the words [p, p + words) of next from cells under the rule. The rows above and below
+	 * are stride words before and after, and the words just before and after the run must exist (the padding of the board).
+	 * Only reads cells and only writes the run of next, so runs can be computed on several threads
+	 */
+	void stepRow(long[] cells, long[] next, int p, int words, int stride, Rule rule);
+	
+	/*
+	 * returns the vector kernel if the Vector API is available, otherwise the scalar kernel
+	 */
+	static RowKernel create() {
+		if (!"scalar".equals(System.getProperty("life.kernel")) && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return (RowKernel)Class.forName("VectorRowKernel").getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError e) {
+				//not compiled with the module, the scalar kernel does the same work
+			}
+		}
+		return new ScalarRowKernel();
+	}
+}
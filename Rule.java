@@ -0,0 +1,153 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * A Life-like rule: whether a cell is alive next generation depends only on whether it is alive now
+ * and how many of its eight neighbours are alive. Rules are written in B/S notation, "B3/S23" being
+ * Conway's game of life: born with 3 neighbours, survives with 2 or 3.
+ *
+ * The rule is compiled into an 18 bit table, bit n for a dead cell and bit 9 + n for an alive cell
+ * with n neighbours, so applying it is a single shift with no branches. Rules are immutable
+ * and the same Rule object can be given to every engine.
+ *
+ * Rules with B0 (birth with no neighbours) are not supported: on an infinite plane every empty cell would be born.
+ */
+
+public final class Rule {
+	//constants
+	public static final Rule CONWAY = parse("B3/S23");	//Conway's game of life
+	public static final String[] PRESETS = {			//well known rules, with their names
+		"B3/S23 life",
+		"B36/S23 highlife",
+		"B3678/S34678 day & night",
+		"B2/S seeds",
+		"B3/S012345678 life without death",
+		"B3/S12345 maze",
+		"B36/S125 2x2",
+		"B1357/S1357 replicator"
+	};
+	private static final int SURVIVAL_SHIFT = 9;	//bit of the table where the alive cells start
+	
+	//variables
+	private final int birth;		//bit n is set if a dead cell with n neighbours is born
+	private final int survival;		//bit n is set if an alive cell with n neighbours survives
+	private final int table;		//birth | survival << SURVIVAL_SHIFT
+	
+	private Rule(int birth, int survival) {
+		this.birth = birth;
+		this.survival = survival;
+		this.table = birth | (survival << SURVIVAL_SHIFT);
+	}
+	
+	/*
+	 * parses a rule in B/S notation ("B36/S23", case and the order of the parts do not matter, the '/' is optional)
+	 * or the older S/B notation ("23/36"). Anything after the rule, separated by a space, is ignored
+	 * so the PRESETS can be parsed directly. Throws IllegalArgumentException if the rule is not valid
+	 */
+	public static Rule parse(String text) {
+		String rule = text.trim().split("\\s+")[0].toUpperCase();
+		int birth = 0;
+		int survival = 0;
+		
+		if (rule.indexOf('B') >= 0 || rule.indexOf('S') >= 0) {
+			char part = 0;	//letter of the part being read, 'B' or 'S'
+			for (int i = 0; i < rule.length(); i++) {
+				char c = rule.charAt(i);
+				if (c == 'B' || c == 'S') {
+					part = c;
+				}
+				else if (c >= '0' && c <= '8' && part == 'B') {
+					birth |= 1 << (c - '0');
+				}
+				else if (c >= '0' && c <= '8' && part == 'S') {
+					survival |= 1 << (c - '0');
+				}
+				else if (c != '/') {
+					throw new IllegalArgumentException("not a B/S rule: " + text);
+				}
+			}
+		}
+		else {
+			String[] parts = rule.split("/", -1);
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("not a B/S rule: " + text);
+			}
+			survival = digits(parts[0], text);
+			birth = digits(parts[1], text);
+		}
+		
+		if ((birth & 1) != 0) {
+			throw new IllegalArgumentException("B0 rules are not supported: " + text);
+		}
+		return new Rule(birth, survival);
+	}
+	
+	/*
+	 * returns the neighbour counts in a string of digits as bits
+	 */
+	private static int digits(String part, String text) {
+		int bits = 0;
+		for (int i = 0; i < part.length(); i++) {
+			char c = part.charAt(i);
+			if (c < '0' || c > '8') {
+				throw new IllegalArgumentException("not a B/S rule: " + text);
+			}
+			bits |= 1 << (c - '0');
+		}
+		return bits;
+	}
+	
+	/*
+	 * returns whether a cell with the given number of neighbours is alive next generation
+	 */
+	public boolean isAliveNext(boolean isAlive, int neighbourNum) {
+		return ((table >>> (neighbourNum + (isAlive ? SURVIVAL_SHIFT : 0))) & 1) != 0;
+	}
+	
+	/*
+	 * returns whether this is Conway's B3/S23, which the engines have hand tuned paths for
+	 */
+	public boolean isConway() {
+		return equals(CONWAY);
+	}
+	
+	public boolean equals(Object other) {
+		return other instanceof Rule && ((Rule)other).table == table;
+	}
+	
+	public int hashCode() {
+		return table;
+	}
+	
+	/*
+	 * returns the rule in B/S notation
+	 */
+	public String toString() {
+		StringBuilder text = new StringBuilder("B");
+		for (int n = 0; n <= 8; n++) {
+			if ((birth & (1 << n)) != 0) {
+				text.append(n);
+			}
+		}
+		text.append("/S");
+		for (int n = 0; n <= 8; n++) {
+			if ((survival & (1 << n)) != 0) {
+				text.append(n);
+			}
+		}
+		return text.toString();
+	}
+	
+	//getters
+	public int getBirth() {
+		return birth;
+	}
+	
+	public int getSurvival() {
+		return survival;
+	}
+	
+	public int getTable() {
+		return table;
+	}
+}
@@ -0,0 +1,34 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * The plain Java RowKernel: one word (64 cells) at a time with DenseLifeEngine.nextWord
+ */
+
+public class ScalarRowKernel implements RowKernel {
+	
+	public void stepRow(long[] cells, long[] next, int p, int words, int stride, Rule rule) {
+		int end = p + words;
+		
+		if (rule.isConway()) {
+			for (; p < end; p++) {
+				next[p] = DenseLifeEngine.nextWord(	cells[p - stride - 1], cells[p - stride], cells[p - stride + 1],
+													cells[p - 1], cells[p], cells[p + 1],
+													cells[p + stride - 1], cells[p + stride], cells[p + stride + 1]);
+			}
+		}
+		else {
+			int birth = rule.getBirth();
+			int survival = rule.getSurvival();
+			for (; p < end; p++) {
+				next[p] = DenseLifeEngine.nextWord(	cells[p - stride - 1], cells[p - stride], cells[p - stride + 1],
+													cells[p - 1], cells[p], cells[p + 1],
+													cells[p + stride - 1], cells[p + stride], cells[p + stride + 1], birth, survival);
+			}
+		}
+	}
+	
+	public String toString() {
+		return "scalar";
+	}
+}
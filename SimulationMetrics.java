@@ -0,0 +1,196 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * SimulationMetrics measures how fast the simulation runs and where the time goes.
+ * Engines add the time of each phase of a generation, the view adds the time it spends rendering,
+ * and the thread that steps the engine calls sample() regularly. Once a window has passed, sample()
+ * turns the totals into rates which are readable from any thread, from the GameHud overlay or over JMX.
+ *
+ * The phases follow SparseLifeEngine: RESET clears the neighbour counts, COUNT adds up the neighbours,
+ * UPDATE applies the rules and CLEANUP swaps the generations. Engines that fuse phases
+ * (the bitboard kernel counts and updates in one pass) report the fused time under UPDATE.
+ */
+
+public class SimulationMetrics implements SimulationMetricsMBean {
+	//constants
+	public static final long WINDOW = 1000000000L;	//nanoseconds over which the rates are measured
+	
+	/*
+	 * The phases a generation is timed in, plus the time spent rendering it
+	 */
+	public enum Phase {
+		RESET, COUNT, UPDATE, CLEANUP, RENDER
+	}
+	
+	//variables
+	private final AtomicLongArray phaseTime = new AtomicLongArray(Phase.values().length);	//nanoseconds spent in each phase in this window
+	private final AtomicLong frames = new AtomicLong();	//frames drawn in this window
+	private volatile long trackedCells;					//tracked cells reported by the engine after its last generation
+	private final com.sun.management.ThreadMXBean threadBean;	//measures allocation, null if the JVM cannot
+	
+	//state of the current window, only touched by the sampling thread
+	private long windowStart;			//time the window started
+	private long windowGeneration;		//generation of the engine when the window started
+	private long windowAllocated = -1;	//bytes allocated by the sampling thread when the window started, -1 if not known
+	private LifeEngine windowEngine;	//engine that was sampled when the window started
+	
+	//results of the last window
+	private volatile long generation;
+	private volatile double generationsPerSecond;
+	private volatile double framesPerSecond;
+	private volatile long liveCells;
+	private volatile long allocatedBytesPerSecond = -1;
+	private volatile double[] phaseMillis = new double[Phase.values().length];	//milliseconds per second spent in each phase
+	
+	/*
+	 * constructor starts the first window now
+	 */
+	public SimulationMetrics() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported()) {
+			threadBean = (com.sun.management.ThreadMXBean)bean;
+			threadBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		else {
+			threadBean = null;
+		}
+		windowStart = System.nanoTime();
+	}
+	
+	/*
+	 * adds time spent in a phase. Safe to call from any thread
+	 */
+	public void addTime(Phase phase, long nanos) {
+		phaseTime.addAndGet(phase.ordinal(), nanos);
+	}
+	
+	/*
+	 * counts a drawn frame and the time it took
+	 */
+	public void frameRendered(long nanos) {
+		addTime(Phase.RENDER, nanos);
+		frames.incrementAndGet();
+	}
+	
+	/*
+	 * records the number of cells the engine stores or visits every generation
+	 */
+	public void setTrackedCells(long trackedCells) {
+		this.trackedCells = trackedCells;
+	}
+	
+	/*
+	 * called regularly by the thread that steps the engine.
+	 * Once the window has passed, computes the rates of the window and starts a new one
+	 */
+	public void sample(LifeEngine engine) {
+		long now = System.nanoTime();
+		long elapsed = now - windowStart;
+		if (elapsed < WINDOW) {
+			return;
+		}
+		
+		double seconds = elapsed / 1e9;
+		long engineGeneration = engine.getGeneration();
+		long allocated = threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;	//-1 if not supported
+		
+		double[] millis = new double[phaseTime.length()];
+		for (int i = 0; i < millis.length; i++) {
+			millis[i] = phaseTime.getAndSet(i, 0) / 1e6 / seconds;
+		}
+		phaseMillis = millis;
+		//a new or loaded engine counts its generations from 0
+		long startGeneration = engine == windowEngine ? windowGeneration : 0;
+		generationsPerSecond = Math.max(0, engineGeneration - startGeneration) / seconds;
+		framesPerSecond = frames.getAndSet(0) / seconds;
+		liveCells = engine.population();
+		allocatedBytesPerSecond = allocated >= 0 && windowAllocated >= 0 ? (long)((allocated - windowAllocated) / seconds) : -1;
+		generation = engineGeneration;
+		
+		windowStart = now;
+		windowGeneration = engineGeneration;
+		windowAllocated = allocated;
+		windowEngine = engine;
+	}
+	
+	/*
+	 * registers the metrics with the platform MBean server under ConwaysGameOfLife:type=SimulationMetrics,name=<name>
+	 */
+	public void register(String name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("ConwaysGameOfLife:type=SimulationMetrics,name=" + ObjectName.quote(name)));
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/*
+	 * returns the metrics of the last window as lines of text, for the hud overlay
+	 */
+	public String[] toLines() {
+		return new String[] {
+			String.format("generation %d, %.1f gen/s, %.1f fps", generation, generationsPerSecond, framesPerSecond),
+			String.format("cells %d live, %d tracked", liveCells, trackedCells),
+			String.format("ms/s  reset %.1f  count %.1f  update %.1f  cleanup %.1f  render %.1f",
+					getResetMillis(), getCountMillis(), getUpdateMillis(), getCleanupMillis(), getRenderMillis()),
+			allocatedBytesPerSecond < 0 ? "allocation: not measured" : String.format("allocation %.1f MB/s", allocatedBytesPerSecond / 1e6)
+		};
+	}
+	
+	//getters
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public double getGenerationsPerSecond() {
+		return generationsPerSecond;
+	}
+	
+	public double getFramesPerSecond() {
+		return framesPerSecond;
+	}
+	
+	public long getLiveCells() {
+		return liveCells;
+	}
+	
+	public long getTrackedCells() {
+		return trackedCells;
+	}
+	
+	public long getAllocatedBytesPerSecond() {
+		return allocatedBytesPerSecond;
+	}
+	
+	public double getPhaseMillis(Phase phase) {
+		return phaseMillis[phase.ordinal()];
+	}
+	
+	public double getResetMillis() {
+		return getPhaseMillis(Phase.RESET);
+	}
+	
+	public double getCountMillis() {
+		return getPhaseMillis(Phase.COUNT);
+	}
+	
+	public double getUpdateMillis() {
+		return getPhaseMillis(Phase.UPDATE);
+	}
+	
+	public double getCleanupMillis() {
+		return getPhaseMillis(Phase.CLEANUP);
+	}
+	
+	public double getRenderMillis() {
+		return getPhaseMillis(Phase.RENDER);
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * The JMX view of SimulationMetrics. Every value is measured over the last complete window
+ * of SimulationMetrics.WINDOW nanoseconds
+ */
+
+public interface SimulationMetricsMBean {
+	
+	/*
+	 * returns the generation the simulation was at, at the end of the last window
+	 */
+	long getGeneration();
+	
+	/*
+	 * returns the number of generations stepped per second
+	 */
+	double getGenerationsPerSecond();
+	
+	/*
+	 * returns the number of frames drawn per second
+	 */
+	double getFramesPerSecond();
+	
+	/*
+	 * returns the number of alive cells
+	 */
+	long getLiveCells();
+	
+	/*
+	 * returns the number of cells (or nodes) the engine stores or visits every generation
+	 */
+	long getTrackedCells();
+	
+	/*
+	 * returns the number of bytes allocated per second by the simulation thread, -1 if the JVM cannot measure it
+	 */
+	long getAllocatedBytesPerSecond();
+	
+	//milliseconds per second spent in each phase of a generation
+	double getResetMillis();
+	
+	double getCountMillis();
+	
+	double getUpdateMillis();
+	
+	double getCleanupMillis();
+	
+	double getRenderMillis();
+}
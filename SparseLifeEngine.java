@@ -0,0 +1,327 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * SparseLifeEngine implements a Life-like rule (Conway's game of life by default) on an infinite plane.
+ * Only alive cells and their neighbours are stored, as packed positions (see Vector2D.pack)
+ * in a primitive hash map, so the universe can grow in any direction.
+ *
+ * The map holds the neighbour count of every cell next to an alive cell, plus ALIVE if the cell
+ * itself is alive, and it is kept up to date as cells are born and die rather than rebuilt every generation.
+ * A cell can only change if it or one of its neighbours changed in the last generation, so each step
+ * only looks at the cells around the last generation's changes. Still lifes, and the still parts of
+ * any pattern, cost nothing: the cost of a generation follows the activity, not the population.
+ *
+ * When a generation changes exactly the cells the generation before it changed, every cell is back
+ * where it was two generations ago, so the whole universe has period 2 (blinkers, beacons and
+ * still lifes around them). From then on a step only toggles those cells, and step(n) jumps straight
+ * to the right phase of the oscillation.
+ */
+
+public class SparseLifeEngine implements LifeEngine {
+	//constants
+	private static final int ALIVE = 16;				//added to a cell's own entry in the counts when it is alive
+	private static final int VISITED = 32;				//marks a cell that has already been evaluated this generation
+	private static final int NEIGHBOURS = ALIVE - 1;	//bits of an entry that hold the neighbour count
+	
+	//variables
+	private final LongIntHashMap counts;	//neighbour count (+ ALIVE if alive) of every alive cell and every cell next to one
+	private LongList changed;				//cells changed by the last generation, and cells set since
+	private LongList nextChanged;			//cells changed by the generation being computed. Swapped with changed after every step
+	private final LongList visited;			//cells marked VISITED in the generation being computed
+	private long population;				//number of alive cells
+	private long hash;						//Zobrist hash of the alive cells, updated on every birth and death
+	private long generation;				//number of generations stepped since the last clear
+	private Rule rule;						//the rule the universe is stepped with
+	private boolean changedByStep;			//whether changed holds exactly the changes of the last step, with no cells set since
+	private boolean periodTwo;				//whether the universe is known to repeat every two generations
+	private SimulationMetrics metrics;		//receives the time of each phase, null if not measured
+	
+	/*
+	 * constructor creates an empty universe
+	 */
+	public SparseLifeEngine() {
+		counts = new LongIntHashMap();
+		changed = new LongList();
+		nextChanged = new LongList();
+		visited = new LongList();
+		generation = 0;
+		rule = Rule.CONWAY;
+	}
+	
+	/*
+	 * advances the universe by one generation
+	 */
+	public void step() {
+		if (periodTwo) {
+			undoChanges();
+		}
+		else if (metrics != null) {
+			stepTimed();
+		}
+		else {
+			findChanges();
+			clearVisited();
+			applyChanges(nextChanged);
+			swapChanges();
+		}
+		generation++;
+	}
+	
+	/*
+	 * advances the universe by the given number of generations.
+	 * Once the universe has period 2 only the parity of the remaining generations matters
+	 */
+	public void step(long generations) {
+		for (long i = 0; i < generations; i++) {
+			if (periodTwo) {
+				if (((generations - i) & 1) != 0) {
+					undoChanges();
+				}
+				generation += generations - i;
+				return;
+			}
+			step();
+		}
+	}
+	
+	/*
+	 * runs the phases of step(), reporting the time of each to the metrics
+	 */
+	private void stepTimed() {
+		long start = System.nanoTime();
+		findChanges();
+		long counted = System.nanoTime();
+		clearVisited();
+		long reset = System.nanoTime();
+		applyChanges(nextChanged);
+		long updated = System.nanoTime();
+		int evaluated = visited.size();
+		swapChanges();
+		long end = System.nanoTime();
+		
+		metrics.addTime(SimulationMetrics.Phase.COUNT, counted - start);
+		metrics.addTime(SimulationMetrics.Phase.RESET, reset - counted);
+		metrics.addTime(SimulationMetrics.Phase.UPDATE, updated - reset);
+		metrics.addTime(SimulationMetrics.Phase.CLEANUP, end - updated);
+		metrics.setTrackedCells(evaluated);
+	}
+	
+	/*
+	 * steps a universe of period 2 by undoing the last generation's changes again.
+	 * Reports the time as UPDATE and the changed cells as tracked, so an oscillating board does not show up as free
+	 */
+	private void undoChanges() {
+		long start = metrics != null ? System.nanoTime() : 0;
+		applyChanges(changed);
+		
+		if (metrics != null) {
+			metrics.addTime(SimulationMetrics.Phase.UPDATE, System.nanoTime() - start);
+			metrics.setTrackedCells(changed.size());
+		}
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public void skipGenerations(long generations) {
+		generation += generations;
+	}
+	
+	public long population() {
+		return population;
+	}
+	
+	public long hash() {
+		return hash;
+	}
+	
+	public void clear() {
+		counts.clear();
+		changed.clear();
+		nextChanged.clear();
+		visited.clear();
+		population = 0;
+		hash = 0;
+		generation = 0;
+		changedByStep = false;
+		periodTwo = false;
+	}
+	
+	public void setAlive(int x, int y, boolean alive) {
+		long cell = Vector2D.pack(x, y);
+		if (((counts.get(cell) & ALIVE) != 0) == alive) {
+			return;
+		}
+		
+		toggle(cell);
+		changed.add(cell);	//its neighbourhood has to be evaluated in the next step
+		changedByStep = false;
+		periodTwo = false;
+	}
+	
+	public boolean isAlive(int x, int y) {
+		return (counts.get(Vector2D.pack(x, y)) & ALIVE) != 0;
+	}
+	
+	/*
+	 * sets the rule. Under a new rule any cell may change, so every alive cell's neighbourhood is evaluated in the next step
+	 */
+	public void setRule(Rule rule) {
+		if (rule.equals(this.rule)) {
+			return;
+		}
+		
+		this.rule = rule;
+		changed.clear();
+		for (int slot = 0; slot < counts.capacity(); slot++) {
+			if ((counts.valueAt(slot) & ALIVE) != 0) {
+				changed.add(counts.keyAt(slot));
+			}
+		}
+		changedByStep = false;
+		periodTwo = false;
+	}
+	
+	public Rule getRule() {
+		return rule;
+	}
+	
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public long[] snapshot() {
+		long[] snapshot = new long[(int)population];
+		int count = 0;
+		
+		for (int slot = 0; slot < counts.capacity(); slot++) {
+			if ((counts.valueAt(slot) & ALIVE) != 0) {
+				snapshot[count++] = counts.keyAt(slot);
+			}
+		}
+		return snapshot;
+	}
+	
+	/*
+	 * returns the alive cells inside the rectangle, without copying the ones outside it
+	 */
+	public long[] snapshot(int left, int top, int width, int height) {
+		LongList inside = new LongList();
+		for (int slot = 0; slot < counts.capacity(); slot++) {
+			if ((counts.valueAt(slot) & ALIVE) != 0 && LifeEngine.contains(left, top, width, height, counts.keyAt(slot))) {
+				inside.add(counts.keyAt(slot));
+			}
+		}
+		return inside.toArray();
+	}
+	
+	/*
+	 * evaluates every cell around the cells changed by the last generation,
+	 * adding the cells that change in this generation to nextChanged
+	 */
+	private void findChanges() {
+		for (int i = 0; i < changed.size(); i++) {
+			long cell = changed.get(i);
+			int x = Vector2D.unpackX(cell);
+			int y = Vector2D.unpackY(cell);
+			
+			evaluate(Vector2D.pack(x - 1, y - 1));
+			evaluate(Vector2D.pack(x, y - 1));
+			evaluate(Vector2D.pack(x + 1, y - 1));
+			evaluate(Vector2D.pack(x - 1, y));
+			evaluate(cell);
+			evaluate(Vector2D.pack(x + 1, y));
+			evaluate(Vector2D.pack(x - 1, y + 1));
+			evaluate(Vector2D.pack(x, y + 1));
+			evaluate(Vector2D.pack(x + 1, y + 1));
+		}
+	}
+	
+	/*
+	 * applies the rules to a cell, once per generation. A cell with no entry is dead
+	 * with no alive neighbours, so it stays dead and does not need to be looked at
+	 */
+	private void evaluate(long cell) {
+		int value = counts.get(cell);
+		if (value == 0 || (value & VISITED) != 0) {
+			return;
+		}
+		
+		counts.add(cell, VISITED);
+		visited.add(cell);
+		
+		boolean isAlive = (value & ALIVE) != 0;
+		if (rule.isAliveNext(isAlive, value & NEIGHBOURS) != isAlive) {
+			nextChanged.add(cell);
+		}
+	}
+	
+	/*
+	 * removes the VISITED marks of this generation
+	 */
+	private void clearVisited() {
+		for (int i = 0; i < visited.size(); i++) {
+			counts.add(visited.get(i), -VISITED);
+		}
+	}
+	
+	/*
+	 * flips the state of every cell in the list
+	 */
+	private void applyChanges(LongList cells) {
+		for (int i = 0; i < cells.size(); i++) {
+			toggle(cells.get(i));
+		}
+	}
+	
+	/*
+	 * makes an alive cell dead or a dead cell alive, updating the neighbour counts of the eight cells around it
+	 */
+	private void toggle(long cell) {
+		int x = Vector2D.unpackX(cell);
+		int y = Vector2D.unpackY(cell);
+		int delta = 1;
+		hash ^= CycleDetector.zobrist(cell);
+		
+		if ((counts.get(cell) & ALIVE) != 0) {
+			counts.add(cell, -ALIVE);
+			population--;
+			delta = -1;
+		}
+		else {
+			counts.add(cell, ALIVE);
+			population++;
+		}
+		
+		counts.add(Vector2D.pack(x - 1, y - 1), delta);
+		counts.add(Vector2D.pack(x, y - 1), delta);
+		counts.add(Vector2D.pack(x + 1, y - 1), delta);
+		counts.add(Vector2D.pack(x - 1, y), delta);
+		counts.add(Vector2D.pack(x + 1, y), delta);
+		counts.add(Vector2D.pack(x - 1, y + 1), delta);
+		counts.add(Vector2D.pack(x, y + 1), delta);
+		counts.add(Vector2D.pack(x + 1, y + 1), delta);
+	}
+	
+	/*
+	 * makes the changes of the computed generation the last changes,
+	 * and checks whether they undo the changes of the generation before
+	 */
+	private void swapChanges() {
+		if (changedByStep && nextChanged.size() == changed.size()) {
+			//the order of the changes does not matter, so both lists can be sorted to compare them
+			changed.sort();
+			nextChanged.sort();
+			periodTwo = nextChanged.sameElements(changed);
+		}
+		
+		LongList temp = changed;
+		changed = nextChanged;
+		nextChanged = temp;
+		nextChanged.clear();
+		visited.clear();
+		changedByStep = true;
+	}
+}
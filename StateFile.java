@@ -0,0 +1,305 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * StateFile reads and writes states.
+ * A .state file holds one line per row of the pattern's bounding box,
+ * with '#' for an alive cell and '0' for a dead cell.
+ * The box is cropped to the alive cells. Files saved by the first version of the game, which saved the dead cells
+ * around the pattern as well, have a ring of '0's around it; they load the same way, one cell further from (0, 0).
+ * RLE and binary files are handed to RleFormat and BinaryFormat; see StateFormat for how the format is chosen.
+ */
+
+public class StateFile {
+	//constants
+	private static final int BUFFER_SIZE = 1 << 20;	//bytes read from a file at a time
+	
+	/*
+	 * Receives the progress of a load
+	 */
+	public interface ProgressListener {
+		/*
+		 * called after every chunk of the file has been parsed
+		 */
+		void progress(long bytesRead, long totalBytes);
+	}
+	
+	/*
+	 * Loads state from a file into the given engine, replacing whatever the engine held
+	 */
+	public static boolean load(String fileDirectory, LifeEngine engine) {
+		return load(fileDirectory, engine, null);
+	}
+	
+	/*
+	 * Loads state from a file into the given engine, replacing whatever the engine held.
+	 * Returns false if the file could not be read.
+	 */
+	public static boolean load(String fileDirectory, LifeEngine engine, ProgressListener listener) {
+		engine.clear();	//clear the current entities so that the loaded state has a clear slate
+		
+		try {
+			switch (StateFormat.forLoading(fileDirectory)) {
+				case RLE:
+					RleFormat.load(fileDirectory, engine, listener);
+					break;
+				case BINARY:
+					BinaryFormat.load(fileDirectory, engine, listener);
+					break;
+				default:
+					loadText(fileDirectory, engine, listener);
+					break;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+		return true;
+	}
+	
+	/*
+	 * Loads a '#'/'0' text state into the engine.
+	 *
+	 * The file is streamed through a fixed size buffer and parsed byte by byte straight into the engine,
+	 * so the heap only has to hold the engine itself, however big the file is.
+	 * The engine is told the size of the pattern up front (width of the first row, height from the file length),
+	 * so it can allocate its storage once instead of growing it row by row.
+	 */
+	private static void loadText(String fileDirectory, LifeEngine engine, ProgressListener listener) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileDirectory), StandardOpenOption.READ)) {
+			//variables
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);		//the chunk of the file being parsed
+			byte[] bytes = buffer.array();								//the bytes of the buffer, parsed directly
+			long totalBytes = channel.size();							//length of the file
+			long bytesRead = 0;											//bytes parsed so far
+			boolean sizeHinted = false;									//whether the engine was told the size of the pattern
+			int x = 0;													//column of the next character
+			int y = 0;													//row of the next character
+			
+			while (channel.read(buffer) > 0) {
+				buffer.flip();
+				bytesRead += buffer.remaining();
+				
+				if (!sizeHinted) {
+					hintSize(buffer, totalBytes, engine);
+					sizeHinted = true;
+				}
+				
+				for (int i = 0; i < buffer.limit(); i++) {
+					byte c = bytes[i];
+					
+					if (c == '\n') {
+						y++;
+						x = 0;
+					}
+					else if (c != '\r') {
+						if (c == '#') {
+							//a '#' indicates that there is an entity in that position
+							engine.setAlive(x, y, true);
+						}
+						x++;
+					}
+				}
+				
+				buffer.clear();
+				if (listener != null) {
+					listener.progress(bytesRead, totalBytes);
+				}
+			}
+		}
+	}
+	
+	/*
+	 * tells the engine the size of the pattern, taking the width from the first row in the buffer
+	 * and estimating the height from the length of the file
+	 */
+	private static void hintSize(ByteBuffer buffer, long totalBytes, LifeEngine engine) {
+		int width = 0;
+		int lineLength = 0;
+		
+		for (int i = buffer.position(); i < buffer.limit(); i++) {
+			byte c = buffer.get(i);
+			lineLength++;
+			if (c == '\n') {
+				break;
+			}
+			if (c != '\r') {
+				width++;
+			}
+		}
+		
+		if (width > 0) {
+			engine.reserve(width, (int)Math.min(Integer.MAX_VALUE, totalBytes / lineLength));
+		}
+	}
+	
+	/*
+	 * Saves the alive cells (packed positions, see Vector2D.pack) of a Conway's game of life pattern to a file
+	 */
+	public static boolean save(String fileDirectory, long[] cells) {
+		return save(fileDirectory, cells, Rule.CONWAY);
+	}
+	
+	/*
+	 * Saves the alive cells (packed positions, see Vector2D.pack) to a file,
+	 * in the format given by the extension of the file (.state if the extension is not known).
+	 * Only RLE files can record the rule.
+	 * Returns false if the file could not be written.
+	 */
+	public static boolean save(String fileDirectory, long[] cells, Rule rule) {
+		try {
+			switch (StateFormat.forSaving(fileDirectory)) {
+				case RLE:
+					RleFormat.save(fileDirectory, cells, rule);
+					break;
+				case BINARY:
+					BinaryFormat.save(fileDirectory, cells);
+					break;
+				default:
+					saveText(fileDirectory, cells);
+					break;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+		return true;
+	}
+	
+	/*
+	 * Saves the alive cells to a '#'/'0' text state.
+	 *
+	 * The cells are sorted by row, then every row of the bounding box is written straight
+	 * to a buffered stream in one pass, so the cost is linear in the size of the file.
+	 */
+	private static void saveText(String fileDirectory, long[] cells) throws IOException {
+		//variables
+		int[] bounds = getBounds(cells); 						//determine the bounds of the save state file
+		byte[] newLine = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+		byte[] row = new byte[bounds[2] + 1];					//the row being written, '0' indicates a dead entity
+		Arrays.fill(row, (byte)'0');
+		
+		long[] sorted = sortByRow(cells, bounds);
+		
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(fileDirectory)), BUFFER_SIZE)) {
+			int next = 0;	//index of the first sorted cell not written yet
+			
+			for (int y = 0; y <= bounds[3]; y++) {
+				//change the character from a '0' to a '#' for every alive entity in this row
+				int first = next;
+				while (next < sorted.length && (sorted[next] >>> 32) == y) {
+					row[(int)sorted[next]] = '#';
+					next++;
+				}
+				
+				out.write(row);
+				out.write(newLine);
+				
+				//reset the row for the next one
+				for (int i = first; i < next; i++) {
+					row[(int)sorted[i]] = '0';
+				}
+			}
+		}
+	}
+	
+	/*
+	 * returns the cells sorted by row then column, relative to the top left of the bounds,
+	 * with the row in the high 32 bits and the column in the low 32 bits of each long
+	 */
+	static long[] sortByRow(long[] cells, int[] bounds) {
+		long[] sorted = new long[cells.length];
+		for (int i = 0; i < cells.length; i++) {
+			long column = Vector2D.unpackX(cells[i]) - bounds[0];
+			long row = Vector2D.unpackY(cells[i]) - bounds[1];
+			sorted[i] = (row << 32) | column;
+		}
+		Arrays.sort(sorted);
+		return sorted;
+	}
+	
+	/*
+	 * returns the smallest rectangle which would cover all cells as {x, y, width, height}.
+	 * width and height are the distance between the outermost cells, so a single cell has 0 dimensions
+	 */
+	public static int[] getBounds(long[] cells) {
+		if (cells.length == 0) {
+			//if there are no cells then we want to return
+			//a rectangle at position (0,0), with 0 dimensions.
+			return new int[] {0, 0, 0, 0};
+		}
+		
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		
+		//iterate through all cells and determine the bounds and location of all cells
+		for (int i = 0; i < cells.length; i++) {
+			int x = Vector2D.unpackX(cells[i]);
+			int y = Vector2D.unpackY(cells[i]);
+			
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+		
+		return new int[] {minX, minY, maxX - minX, maxY - minY};
+	}
+	
+	/*
+	 * A buffered input stream that reports how many bytes have been read to a ProgressListener,
+	 * once every BUFFER_SIZE bytes
+	 */
+	static class CountingInputStream extends FilterInputStream {
+		private final long totalBytes;				//length of the file
+		private final ProgressListener listener;	//receives the progress, may be null
+		private long bytesRead;						//bytes read so far
+		private long reportedBytes;					//bytesRead when progress was last reported
+		
+		CountingInputStream(InputStream in, long totalBytes, ProgressListener listener) {
+			super(new BufferedInputStream(in, BUFFER_SIZE));
+			this.totalBytes = totalBytes;
+			this.listener = listener;
+		}
+		
+		public int read() throws IOException {
+			int c = super.read();
+			if (c != -1) {
+				counted(1);
+			}
+			return c;
+		}
+		
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				counted(n);
+			}
+			return n;
+		}
+		
+		private void counted(int n) {
+			bytesRead += n;
+			if (listener != null && (bytesRead - reportedBytes >= BUFFER_SIZE || bytesRead == totalBytes)) {
+				listener.progress(bytesRead, totalBytes);
+				reportedBytes = bytesRead;
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * The file formats a state can be saved in or loaded from.
+ * The format of a file is chosen from its extension, or, if the extension is not known,
+ * by looking at the first bytes of the file.
+ */
+
+public enum StateFormat {
+	TEXT("state", "'#'/'0' text state (*.state)"),
+	RLE("rle", "run length encoded (*.rle)"),
+	BINARY("lifb", "compact binary (*.lifb)");
+	
+	//variables
+	private final String extension;		//file extension, without the dot
+	private final String description;	//name shown in the file chooser
+	
+	StateFormat(String extension, String description) {
+		this.extension = extension;
+		this.description = description;
+	}
+	
+	/*
+	 * returns the format a file should be saved in, from its extension. Unknown extensions are saved as TEXT
+	 */
+	public static StateFormat forSaving(String fileDirectory) {
+		StateFormat format = fromExtension(fileDirectory);
+		return format != null ? format : TEXT;
+	}
+	
+	/*
+	 * returns the format of an existing file, from its extension or else from its first bytes
+	 */
+	public static StateFormat forLoading(String fileDirectory) throws IOException {
+		StateFormat format = fromExtension(fileDirectory);
+		if (format != null) {
+			return format;
+		}
+		
+		byte[] header = new byte[64];
+		int length;
+		try (InputStream in = Files.newInputStream(Paths.get(fileDirectory))) {
+			length = in.readNBytes(header, 0, header.length);
+		}
+		return detect(header, length);
+	}
+	
+	/*
+	 * works out the format from the first bytes of a file.
+	 * Binary files start with a magic number, RLE files with a header line ("x = ...")
+	 * or with comment lines ('#' followed by a letter, which can never start a text state)
+	 */
+	public static StateFormat detect(byte[] header, int length) {
+		if (length >= BinaryFormat.MAGIC.length) {
+			boolean isBinary = true;
+			for (int i = 0; i < BinaryFormat.MAGIC.length; i++) {
+				isBinary &= header[i] == BinaryFormat.MAGIC[i];
+			}
+			if (isBinary) {
+				return BINARY;
+			}
+		}
+		
+		String start = new String(header, 0, length, StandardCharsets.US_ASCII).trim();
+		if (start.startsWith("x") || (start.length() > 1 && start.charAt(0) == '#' && Character.isLetter(start.charAt(1)))) {
+			return RLE;
+		}
+		return TEXT;
+	}
+	
+	/*
+	 * returns the format with the extension of the file, or null if no format uses it
+	 */
+	private static StateFormat fromExtension(String fileDirectory) {
+		String name = Paths.get(fileDirectory).getFileName().toString().toLowerCase();
+		
+		for (StateFormat format : values()) {
+			if (name.endsWith("." + format.extension)) {
+				return format;
+			}
+		}
+		return null;
+	}
+	
+	//getters
+	public String getExtension() {
+		return extension;
+	}
+	
+	public String getDescription() {
+		return description;
+	}
+}
@@ -0,0 +1,217 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * TemporalLifeEngine steps a DenseLifeEngine board several generations per pass over memory (temporal blocking).
+ * DenseLifeEngine reads and writes the whole board once per generation, so on boards much bigger than
+ * the CPU caches, and above all with many cores sharing the memory bus, it is limited by memory bandwidth rather than by the kernel.
+ *
+ * step(n) splits the board into tiles of TILE_ROWS x TILE_WORDS and advances each tile up to depth
+ * generations in a row in two small buffers that stay in the L1/L2 cache. A cell only depends on cells
+ * one step away, so after k generations a tile only depends on the cells within k of it: each tile is
+ * copied with a halo of k rows above and below and one word (64 cells) either side. Every generation the
+ * part of the buffer that is still exact shrinks by one cell on each side, and after k generations only
+ * the tile itself is written back into the next board. Each pass reads and writes the board once for k
+ * generations, so memory traffic drops by about k, at the cost of also stepping the halo.
+ * A tile whose halo is empty is only cleared, so the empty parts of a grown board cost next to nothing.
+ *
+ * Before a pass the board is grown until no alive cell lies within k cells of its edge, so nothing can
+ * reach the edge in k generations and the cells beyond it can be treated as dead, as DenseLifeEngine does.
+ * The result is bit-identical to DenseLifeEngine. step() still steps one generation at a time;
+ * GameManager steps the engine with step(n), so the game loop gets the blocking as it is.
+ */
+
+public class TemporalLifeEngine extends DenseLifeEngine {
+	//constants
+	public static final int DEFAULT_DEPTH = 16;		//generations stepped per pass over the board
+	public static final int MAX_DEPTH = 63;			//a halo word keeps the tile exact for up to 63 generations
+	private static final int TILE_ROWS = 256;		//height of a tile in rows
+	private static final int TILE_WORDS = 62;		//width of a tile in words (3968 cells), 64 with the halo so rows are whole vectors
+	
+	//variables
+	private final int depth;	//generations stepped per pass
+	private long[] tile;		//the tile and its halo, in the generation being read
+	private long[] tileNext;	//the tile and its halo, in the generation being computed
+	
+	/*
+	 * constructor creates an empty universe stepped DEFAULT_DEPTH generations per pass,
+	 * or the number of generations in the life.temporal.depth system property
+	 */
+	public TemporalLifeEngine() {
+		this(Integer.getInteger("life.temporal.depth", DEFAULT_DEPTH));
+	}
+	
+	/*
+	 * constructor creates an empty universe stepped the given number of generations per pass
+	 */
+	public TemporalLifeEngine(int depth) {
+		super();
+		if (depth < 1 || depth > MAX_DEPTH) {
+			throw new IllegalArgumentException("depth must be between 1 and " + MAX_DEPTH + ": " + depth);
+		}
+		this.depth = depth;
+		
+		//room for the largest tile, its halo and a padding word either side
+		int size = (TILE_ROWS + 2 * depth) * (TILE_WORDS + 4);
+		tile = new long[size];
+		tileNext = new long[size];
+	}
+	
+	/*
+	 * advances the universe by the given number of generations, up to depth generations per pass
+	 */
+	public void step(long generations) {
+		while (generations > 0) {
+			int k = (int)Math.min(depth, generations);
+			if (k == 1) {
+				step();	//a halo is not worth copying for a single generation
+			}
+			else if (metrics != null) {
+				stepPassTimed(k);
+			}
+			else {
+				growToFitMargin(k);
+				stepPass(k);
+				swapBuffers();
+				generation += k;
+			}
+			generations -= k;
+		}
+	}
+	
+	/*
+	 * runs the phases of a pass, reporting the time of each to the metrics like stepTimed()
+	 */
+	private void stepPassTimed(int k) {
+		long start = System.nanoTime();
+		growToFitMargin(k);
+		long grown = System.nanoTime();
+		stepPass(k);
+		long updated = System.nanoTime();
+		swapBuffers();
+		generation += k;
+		long end = System.nanoTime();
+		
+		metrics.addTime(SimulationMetrics.Phase.RESET, grown - start);
+		metrics.addTime(SimulationMetrics.Phase.UPDATE, updated - grown);
+		metrics.addTime(SimulationMetrics.Phase.CLEANUP, end - updated);
+		metrics.setTrackedCells((long)getBoardWidth() * rows);
+	}
+	
+	/*
+	 * grows the board until no alive cell lies within k cells of its edge,
+	 * so no cell can be born outside of the board in the next k generations
+	 */
+	private void growToFitMargin(int k) {
+		boolean top = false;
+		boolean bottom = false;
+		boolean left = false;
+		boolean right = false;
+		
+		int margin = Math.min(k, rows);
+		for (int r = 0; r < margin; r++) {
+			int topStart = (r + 1) * stride + 1;
+			int bottomStart = (rows - r) * stride + 1;
+			for (int w = 0; w < wordsPerRow; w++) {
+				top |= cells[topStart + w] != 0;
+				bottom |= cells[bottomStart + w] != 0;
+			}
+		}
+		long leftMask = -1L >>> (64 - k);	//the k cells at the west end of a word
+		long rightMask = -1L << (64 - k);	//the k cells at the east end of a word
+		for (int r = 0; r < rows; r++) {
+			int rowStart = (r + 1) * stride + 1;
+			left |= (cells[rowStart] & leftMask) != 0;
+			right |= (cells[rowStart + wordsPerRow - 1] & rightMask) != 0;
+		}
+		
+		if (top || bottom || left || right) {
+			//grows by at least INITIAL_ROWS rows and a word, more than any margin
+			int growWords = Math.max(1, wordsPerRow / 2);
+			int growRows = Math.max(INITIAL_ROWS, rows / 2);
+			grow(left ? growWords : 0, right ? growWords : 0, top ? growRows : 0, bottom ? growRows : 0);
+		}
+	}
+	
+	/*
+	 * computes the generation k steps after cells into next, a tile at a time
+	 */
+	private void stepPass(int k) {
+		for (int fromRow = 0; fromRow < rows; fromRow += TILE_ROWS) {
+			for (int fromWord = 0; fromWord < wordsPerRow; fromWord += TILE_WORDS) {
+				stepTileDeep(fromRow, Math.min(rows, fromRow + TILE_ROWS), fromWord, Math.min(wordsPerRow, fromWord + TILE_WORDS), k);
+			}
+		}
+	}
+	
+	/*
+	 * copies a tile and its halo out of cells, steps it k generations and writes the tile into next.
+	 *
+	 * In the tile buffer row h holds board row fromRow - k + h, and each row has a padding word, the left halo word,
+	 * the words of the tile, the right halo word and a padding word. Generation g is only computed for the
+	 * rows [g, height - g): those are the rows whose neighbours were computed in generation g - 1.
+	 * The halo words are stepped with the tile; they are wrong from their outer edge inwards, one cell per generation,
+	 * which never reaches the tile in up to MAX_DEPTH generations
+	 */
+	private void stepTileDeep(int fromRow, int toRow, int fromWord, int toWord, int k) {
+		int height = toRow - fromRow + 2 * k;	//rows in the buffer
+		int words = toWord - fromWord + 2;		//words stepped per row, the halo included
+		int tileStride = words + 2;
+		
+		//copy the tile and its halo; rows off the board are dead
+		long alive = 0;	//non zero if any cell of the tile or its halo is alive
+		for (int h = 0; h < height; h++) {
+			int r = fromRow - k + h;
+			int t = h * tileStride + 1;
+			if (r < 0 || r >= rows) {
+				Arrays.fill(tile, t, t + words, 0);
+			}
+			else {
+				System.arraycopy(cells, (r + 1) * stride + fromWord, tile, t, words);	//from the word before the tile
+				for (int i = t; i < t + words; i++) {
+					alive |= tile[i];
+				}
+			}
+			
+			//the buffers are shared by tiles of every width, so the padding words may hold another tile's cells
+			tile[t - 1] = 0;
+			tile[t + words] = 0;
+			tileNext[t - 1] = 0;
+			tileNext[t + words] = 0;
+		}
+		
+		if (alive == 0) {
+			//no rule gives birth to a cell with no alive neighbours, so the tile stays empty
+			for (int r = fromRow; r < toRow; r++) {
+				int p = (r + 1) * stride + 1 + fromWord;
+				Arrays.fill(next, p, p + toWord - fromWord, 0);
+			}
+			return;
+		}
+		
+		for (int g = 1; g <= k; g++) {
+			for (int h = g; h < height - g; h++) {
+				kernel.stepRow(tile, tileNext, h * tileStride + 1, words, tileStride, rule);
+			}
+			
+			long[] temp = tile;
+			tile = tileNext;
+			tileNext = temp;
+		}
+		
+		//write back the tile without its halo; the hash takes the cells that flipped over all k generations
+		for (int r = fromRow; r < toRow; r++) {
+			System.arraycopy(tile, (r - fromRow + k) * tileStride + 2, next, (r + 1) * stride + 1 + fromWord, toWord - fromWord);
+			if (hashing) {
+				hash ^= hashFlips(r, fromWord, toWord);
+			}
+		}
+	}
+	
+	//getters
+	public int getDepth() {
+		return depth;
+	}
+}
@@ -0,0 +1,550 @@
+import java.util.Arrays;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * TileLifeEngine splits the infinite plane into tiles of 64 x 64 cells, stored like the rows of the
+ * dense bitboard (one long of 64 cells per row) and stepped with the same bitwise kernel.
+ * Only tiles that hold, or may soon hold, alive cells exist: they are kept in a primitive hash map
+ * from the packed tile position (see Vector2D.pack) to a slot in one flat pool of longs.
+ *
+ * A tile is created when a cell on the edge facing it is born or dies, since only then can a cell in it get
+ * a different neighbour count, and its slot goes back to a free list once it is empty and stays empty, so the memory follows the area the pattern covers (for a glider gun,
+ * the gun plus a strip of tiles along each stream) rather than its bounding box.
+ * A tile can only change if it or one of the tiles around it changed in the last generation,
+ * so only those tiles are stepped; still lifes cost nothing after the generation they settle.
+ * The Zobrist hash is updated from the bits that flip when a tile is written back, so hash() costs nothing.
+ */
+
+public class TileLifeEngine implements LifeEngine {
+	//constants
+	private static final int TILE_BITS = 6;					//log2 of the width of a tile
+	private static final int TILE_SIZE = 1 << TILE_BITS;	//width and height of a tile in cells
+	private static final int INITIAL_TILES = 16;			//number of tile slots in the initial pool
+	
+	//variables
+	private final LongIntHashMap tiles;	//slot + 1 of every existing tile, by packed tile position
+	private long[] cells;				//the rows of every tile slot: slot s holds rows [s * 64, s * 64 + 64)
+	private long[] next;				//the next generation of the slots stepped this generation
+	private long[] positions;			//packed tile position of every slot
+	private long[] stamps;				//step during which each slot was last queued to be stepped
+	private int[] free;					//slots of freed tiles, for reuse
+	private int freeCount;				//number of slots in free
+	private int slotCount;				//number of slots ever used (freed ones included)
+	private LongList changed;			//packed positions of the tiles changed by the last generation, and of tiles set since
+	private LongList changedEdges;		//the bits that flipped in each tile of changed: in its top row, its bottom row and any row, three longs per tile
+	private LongList nextChanged;		//tiles changed by the generation being computed. Swapped with changed after every step
+	private LongList nextChangedEdges;	//the flipped bits of the tiles of nextChanged
+	private final LongList stepped;		//slots being stepped this generation
+	private long stamp;					//number of the current step, marks the slots already queued in it. A long, so it never wraps round to a stamp still held by a slot
+	private final long[] above;			//the rows of a tile with the bottom row of the tile above and top row of the tile below added
+	private final long[] west;			//the same rows of the tile to the west
+	private final long[] east;			//the same rows of the tile to the east
+	private long population;			//number of alive cells
+	private long hash;					//Zobrist hash of the alive cells, updated on every birth and death
+	private long generation;			//number of generations stepped since the last clear
+	private Rule rule;					//the rule the universe is stepped with
+	private SimulationMetrics metrics;	//receives the time of each phase, null if not measured
+	
+	/*
+	 * constructor creates an empty universe
+	 */
+	public TileLifeEngine() {
+		tiles = new LongIntHashMap();
+		cells = new long[INITIAL_TILES << TILE_BITS];
+		next = new long[INITIAL_TILES << TILE_BITS];
+		positions = new long[INITIAL_TILES];
+		stamps = new long[INITIAL_TILES];
+		free = new int[INITIAL_TILES];
+		changed = new LongList();
+		changedEdges = new LongList();
+		nextChanged = new LongList();
+		nextChangedEdges = new LongList();
+		stepped = new LongList();
+		above = new long[TILE_SIZE + 2];
+		west = new long[TILE_SIZE + 2];
+		east = new long[TILE_SIZE + 2];
+		rule = Rule.CONWAY;
+	}
+	
+	/*
+	 * advances the universe by one generation
+	 */
+	public void step() {
+		if (metrics != null) {
+			long start = System.nanoTime();
+			queueTiles();
+			long queued = System.nanoTime();
+			stepTiles();
+			long updated = System.nanoTime();
+			int tileNum = stepped.size();
+			applyChanges();
+			
+			metrics.addTime(SimulationMetrics.Phase.COUNT, queued - start);
+			metrics.addTime(SimulationMetrics.Phase.UPDATE, updated - queued);
+			metrics.addTime(SimulationMetrics.Phase.CLEANUP, System.nanoTime() - updated);
+			metrics.setTrackedCells((long)tileNum * TILE_SIZE * TILE_SIZE);
+		}
+		else {
+			queueTiles();
+			stepTiles();
+			applyChanges();
+		}
+		generation++;
+	}
+	
+	/*
+	 * queues every tile around the tiles changed by the last generation to be stepped,
+	 * creating the missing ones next to a cell that flipped on the edge of a changed tile.
+	 * A missing tile is dead and had no births the last time it was stepped, so only a flip next to it can give it one;
+	 * an alive cell that did not flip can not (the tile it faces may have been freed while it was there)
+	 */
+	private void queueTiles() {
+		stamp++;
+		stepped.clear();
+		
+		for (int i = 0; i < changed.size(); i++) {
+			long position = changed.get(i);
+			int tileX = Vector2D.unpackX(position);
+			int tileY = Vector2D.unpackY(position);
+			
+			//the cells of the changed tile that were born or died
+			long top = changedEdges.get(3 * i);
+			long bottom = changedEdges.get(3 * i + 1);
+			long columns = changedEdges.get(3 * i + 2);
+			boolean westEdge = (columns & 1) != 0;
+			boolean eastEdge = (columns >>> 63) != 0;
+			
+			queue(tileX - 1, tileY - 1, (top & 1) != 0);
+			queue(tileX, tileY - 1, top != 0);
+			queue(tileX + 1, tileY - 1, (top >>> 63) != 0);
+			queue(tileX - 1, tileY, westEdge);
+			queue(tileX, tileY, false);
+			queue(tileX + 1, tileY, eastEdge);
+			queue(tileX - 1, tileY + 1, (bottom & 1) != 0);
+			queue(tileX, tileY + 1, bottom != 0);
+			queue(tileX + 1, tileY + 1, (bottom >>> 63) != 0);
+		}
+	}
+	
+	/*
+	 * queues the tile to be stepped once this generation. A missing tile is created if reached, otherwise it stays empty
+	 */
+	private void queue(int tileX, int tileY, boolean reached) {
+		long position = Vector2D.pack(tileX, tileY);
+		int slot = tiles.get(position) - 1;
+		
+		if (slot < 0) {
+			if (!reached) {
+				return;
+			}
+			slot = allocate(position);
+		}
+		if (stamps[slot] != stamp) {
+			stamps[slot] = stamp;
+			stepped.add(slot);
+		}
+	}
+	
+	/*
+	 * computes the next generation of every queued tile into next
+	 */
+	private void stepTiles() {
+		for (int i = 0; i < stepped.size(); i++) {
+			int slot = (int)stepped.get(i);
+			int tileX = Vector2D.unpackX(positions[slot]);
+			int tileY = Vector2D.unpackY(positions[slot]);
+			
+			gatherRows(above, tileX, tileY);
+			gatherRows(west, tileX - 1, tileY);
+			gatherRows(east, tileX + 1, tileY);
+			stepTile(slot << TILE_BITS);
+		}
+	}
+	
+	/*
+	 * copies the rows of the tile into rows[1..64], with the bottom row of the tile above in rows[0]
+	 * and the top row of the tile below in rows[65]. Missing tiles are dead
+	 */
+	private void gatherRows(long[] rows, int tileX, int tileY) {
+		int slot = tiles.get(Vector2D.pack(tileX, tileY)) - 1;
+		int up = tiles.get(Vector2D.pack(tileX, tileY - 1)) - 1;
+		int down = tiles.get(Vector2D.pack(tileX, tileY + 1)) - 1;
+		
+		rows[0] = up >= 0 ? cells[(up << TILE_BITS) + TILE_SIZE - 1] : 0;
+		rows[TILE_SIZE + 1] = down >= 0 ? cells[down << TILE_BITS] : 0;
+		if (slot >= 0) {
+			System.arraycopy(cells, slot << TILE_BITS, rows, 1, TILE_SIZE);
+		}
+		else {
+			Arrays.fill(rows, 1, TILE_SIZE + 1, 0);
+		}
+	}
+	
+	/*
+	 * computes the next generation of the gathered tile into next, from index base
+	 */
+	private void stepTile(int base) {
+		if (rule.isConway()) {
+			for (int r = 1; r <= TILE_SIZE; r++) {
+				next[base + r - 1] = DenseLifeEngine.nextWord(	west[r - 1], above[r - 1], east[r - 1],
+																west[r], above[r], east[r],
+																west[r + 1], above[r + 1], east[r + 1]);
+			}
+		}
+		else {
+			int birth = rule.getBirth();
+			int survival = rule.getSurvival();
+			for (int r = 1; r <= TILE_SIZE; r++) {
+				next[base + r - 1] = DenseLifeEngine.nextWord(	west[r - 1], above[r - 1], east[r - 1],
+																west[r], above[r], east[r],
+																west[r + 1], above[r + 1], east[r + 1], birth, survival);
+			}
+		}
+	}
+	
+	/*
+	 * copies the stepped tiles that changed back into cells, frees the ones that are and stay empty,
+	 * and makes the changed tiles the last changes
+	 */
+	private void applyChanges() {
+		for (int i = 0; i < stepped.size(); i++) {
+			int slot = (int)stepped.get(i);
+			int base = slot << TILE_BITS;
+			long columns = 0;	//the bits that flipped in any row
+			long top = next[base] ^ cells[base];
+			long bottom = next[base + TILE_SIZE - 1] ^ cells[base + TILE_SIZE - 1];
+			boolean empty = true;
+			
+			for (int r = base; r < base + TILE_SIZE; r++) {
+				long flips = next[r] ^ cells[r];
+				if (flips != 0) {
+					population += Long.bitCount(next[r]) - Long.bitCount(cells[r]);
+					hashFlips(positions[slot], r - base, flips);
+					cells[r] = next[r];
+					columns |= flips;
+				}
+				empty &= cells[r] == 0;
+			}
+			
+			if (columns != 0) {
+				addChange(nextChanged, nextChangedEdges, positions[slot], top, bottom, columns);
+			}
+			else if (empty) {
+				release(slot);
+			}
+		}
+		
+		LongList temp = changed;
+		changed = nextChanged;
+		nextChanged = temp;
+		nextChanged.clear();
+		temp = changedEdges;
+		changedEdges = nextChangedEdges;
+		nextChangedEdges = temp;
+		nextChangedEdges.clear();
+	}
+	
+	/*
+	 * adds the tile at the packed tile position to the changed tiles, with the bits that flipped in its top row,
+	 * its bottom row and any of its rows
+	 */
+	private static void addChange(LongList changed, LongList edges, long position, long top, long bottom, long columns) {
+		changed.add(position);
+		edges.add(top);
+		edges.add(bottom);
+		edges.add(columns);
+	}
+	
+	/*
+	 * adds the cells of a row of the tile at the packed tile position that were born or died to the hash
+	 */
+	private void hashFlips(long position, int row, long flips) {
+		int left = Vector2D.unpackX(position) << TILE_BITS;
+		int y = (Vector2D.unpackY(position) << TILE_BITS) + row;
+		while (flips != 0) {
+			int bit = Long.numberOfTrailingZeros(flips);
+			hash ^= CycleDetector.zobrist(Vector2D.pack(left + bit, y));
+			flips &= flips - 1;
+		}
+	}
+	
+	/*
+	 * returns a slot for a new, empty tile at the packed tile position
+	 */
+	private int allocate(long position) {
+		int slot;
+		if (freeCount > 0) {
+			slot = free[--freeCount];
+		}
+		else {
+			if (slotCount == positions.length) {
+				int capacity = slotCount * 2;
+				cells = Arrays.copyOf(cells, capacity << TILE_BITS);
+				next = Arrays.copyOf(next, capacity << TILE_BITS);
+				positions = Arrays.copyOf(positions, capacity);
+				stamps = Arrays.copyOf(stamps, capacity);
+				free = Arrays.copyOf(free, capacity);
+			}
+			slot = slotCount++;
+		}
+		
+		Arrays.fill(cells, slot << TILE_BITS, (slot + 1) << TILE_BITS, 0);
+		positions[slot] = position;
+		stamps[slot] = 0;
+		tiles.put(position, slot + 1);
+		return slot;
+	}
+	
+	/*
+	 * frees the slot of an empty tile
+	 */
+	private void release(int slot) {
+		tiles.remove(positions[slot]);
+		free[freeCount++] = slot;
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public void skipGenerations(long generations) {
+		generation += generations;
+	}
+	
+	public long population() {
+		return population;
+	}
+	
+	public long hash() {
+		return hash;
+	}
+	
+	public void clear() {
+		tiles.clear();
+		changed.clear();
+		changedEdges.clear();
+		nextChanged.clear();
+		nextChangedEdges.clear();
+		stepped.clear();
+		slotCount = 0;
+		freeCount = 0;
+		population = 0;
+		hash = 0;
+		generation = 0;
+	}
+	
+	public void setAlive(int x, int y, boolean alive) {
+		long position = Vector2D.pack(x >> TILE_BITS, y >> TILE_BITS);
+		int slot = tiles.get(position) - 1;
+		if (slot < 0) {
+			if (!alive) {
+				return;
+			}
+			slot = allocate(position);
+		}
+		
+		int row = (slot << TILE_BITS) + (y & (TILE_SIZE - 1));
+		long bit = 1L << (x & (TILE_SIZE - 1));
+		if (((cells[row] & bit) != 0) == alive) {
+			return;
+		}
+		
+		cells[row] ^= bit;
+		population += alive ? 1 : -1;
+		hash ^= CycleDetector.zobrist(Vector2D.pack(x, y));
+		//the tiles around it have to be stepped in the next generation
+		int r = y & (TILE_SIZE - 1);
+		addChange(changed, changedEdges, position, r == 0 ? bit : 0, r == TILE_SIZE - 1 ? bit : 0, bit);
+	}
+	
+	public boolean isAlive(int x, int y) {
+		int slot = tiles.get(Vector2D.pack(x >> TILE_BITS, y >> TILE_BITS)) - 1;
+		return slot >= 0 && (cells[(slot << TILE_BITS) + (y & (TILE_SIZE - 1))] & (1L << (x & (TILE_SIZE - 1)))) != 0;
+	}
+	
+	/*
+	 * sets the rule. Under a new rule any tile may change, so every tile is stepped in the next generation,
+	 * with the missing tiles next to an alive cell on its edges as if those cells had just been born
+	 */
+	public void setRule(Rule rule) {
+		if (rule.equals(this.rule)) {
+			return;
+		}
+		
+		this.rule = rule;
+		changed.clear();
+		changedEdges.clear();
+		for (int i = 0; i < tiles.capacity(); i++) {
+			if (tiles.valueAt(i) != 0) {
+				int base = (tiles.valueAt(i) - 1) << TILE_BITS;
+				long columns = 0;
+				for (int r = base; r < base + TILE_SIZE; r++) {
+					columns |= cells[r];
+				}
+				addChange(changed, changedEdges, tiles.keyAt(i), cells[base], cells[base + TILE_SIZE - 1], columns);
+			}
+		}
+	}
+	
+	public Rule getRule() {
+		return rule;
+	}
+	
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public long[] snapshot() {
+		long[] snapshot = new long[(int)population];
+		int count = 0;
+		
+		for (int i = 0; i < tiles.capacity(); i++) {
+			if (tiles.valueAt(i) == 0) {
+				continue;
+			}
+			
+			int base = (tiles.valueAt(i) - 1) << TILE_BITS;
+			int left = Vector2D.unpackX(tiles.keyAt(i)) << TILE_BITS;
+			int top = Vector2D.unpackY(tiles.keyAt(i)) << TILE_BITS;
+			for (int r = 0; r < TILE_SIZE; r++) {
+				//visit every set bit of the row
+				long word = cells[base + r];
+				while (word != 0) {
+					int bit = Long.numberOfTrailingZeros(word);
+					snapshot[count++] = Vector2D.pack(left + bit, top + r);
+					word &= word - 1;
+				}
+			}
+		}
+		return snapshot;
+	}
+	
+	/*
+	 * returns the alive cells inside the rectangle, visiting only the tiles that overlap it
+	 */
+	public long[] snapshot(int left, int top, int width, int height) {
+		LongList inside = new LongList();
+		LongList slots = slotsInside(left, top, width, height);
+		
+		for (int i = 0; i < slots.size(); i++) {
+			int slot = (int)slots.get(i);
+			int base = slot << TILE_BITS;
+			int tileLeft = Vector2D.unpackX(positions[slot]) << TILE_BITS;
+			int tileTop = Vector2D.unpackY(positions[slot]) << TILE_BITS;
+			long mask = columnMask(tileLeft, left, width);
+			int firstRow = (int)Math.max(0, (long)top - tileTop);
+			int lastRow = (int)Math.min(TILE_SIZE, (long)top + height - tileTop);
+			
+			for (int r = firstRow; r < lastRow; r++) {
+				long word = cells[base + r] & mask;
+				while (word != 0) {
+					int bit = Long.numberOfTrailingZeros(word);
+					inside.add(Vector2D.pack(tileLeft + bit, tileTop + r));
+					word &= word - 1;
+				}
+			}
+		}
+		return inside.toArray();
+	}
+	
+	/*
+	 * counts the blocks a tile row at a time, like DenseLifeEngine: the bits of a row that fall into one block
+	 * are counted with a single bitCount, and only the tiles that overlap the grid are visited
+	 */
+	public void countBlocks(int left, int top, int blockSize, int blockColumns, int blockRows, int[] counts) {
+		Arrays.fill(counts, 0, blockColumns * blockRows, 0);
+		long width = (long)blockSize * blockColumns;
+		long height = (long)blockSize * blockRows;
+		LongList slots = slotsInside(left, top, width, height);
+		
+		for (int i = 0; i < slots.size(); i++) {
+			int slot = (int)slots.get(i);
+			int base = slot << TILE_BITS;
+			long tileLeft = (long)Vector2D.unpackX(positions[slot]) << TILE_BITS;
+			long tileTop = (long)Vector2D.unpackY(positions[slot]) << TILE_BITS;
+			long mask = columnMask(tileLeft, left, width);
+			int firstRow = (int)Math.max(0, top - tileTop);
+			int lastRow = (int)Math.min(TILE_SIZE, top + height - tileTop);
+			
+			for (int r = firstRow; r < lastRow; r++) {
+				int blockRowStart = (int)((tileTop + r - top) / blockSize) * blockColumns;
+				long word = cells[base + r] & mask;
+				
+				while (word != 0) {
+					long column = (tileLeft + Long.numberOfTrailingZeros(word) - left) / blockSize;
+					long end = left + (column + 1) * blockSize - tileLeft;	//first bit of the next block
+					long part = end >= 64 ? word : word & ((1L << end) - 1);
+					counts[blockRowStart + (int)column] += Long.bitCount(part);
+					word &= ~part;
+				}
+			}
+		}
+	}
+	
+	/*
+	 * returns the slots of the tiles that overlap the rectangle. A small rectangle looks up each tile position
+	 * in it, a big one (a zoomed out view) goes through the existing tiles instead
+	 */
+	private LongList slotsInside(long left, long top, long width, long height) {
+		LongList slots = new LongList();
+		if (width <= 0 || height <= 0) {
+			return slots;
+		}
+		
+		long firstX = left >> TILE_BITS;
+		long lastX = (left + width - 1) >> TILE_BITS;
+		long firstY = top >> TILE_BITS;
+		long lastY = (top + height - 1) >> TILE_BITS;
+		
+		if ((lastX - firstX + 1) * (lastY - firstY + 1) <= tiles.size()) {
+			for (long tileY = firstY; tileY <= lastY; tileY++) {
+				for (long tileX = firstX; tileX <= lastX; tileX++) {
+					int slot = tiles.get(Vector2D.pack((int)tileX, (int)tileY)) - 1;
+					if (slot >= 0) {
+						slots.add(slot);
+					}
+				}
+			}
+		}
+		else {
+			for (int i = 0; i < tiles.capacity(); i++) {
+				if (tiles.valueAt(i) == 0) {
+					continue;
+				}
+				
+				int tileX = Vector2D.unpackX(tiles.keyAt(i));
+				int tileY = Vector2D.unpackY(tiles.keyAt(i));
+				if (tileX >= firstX && tileX <= lastX && tileY >= firstY && tileY <= lastY) {
+					slots.add(tiles.valueAt(i) - 1);
+				}
+			}
+		}
+		return slots;
+	}
+	
+	/*
+	 * returns the bits of a tile row starting at column tileLeft that lie in the columns [left, left + width) of the plane
+	 */
+	private static long columnMask(long tileLeft, long left, long width) {
+		long start = left - tileLeft;	//bit of the row in column left
+		long end = start + width;
+		long mask = -1L;
+		
+		if (start > 0) {
+			mask = start >= 64 ? 0 : mask & (-1L << start);
+		}
+		if (end < 64) {
+			mask = end <= 0 ? 0 : mask & (-1L >>> (64 - end));
+		}
+		return mask;
+	}
+	
+	/*
+	 * returns the number of tiles that currently exist
+	 */
+	public int getTileCount() {
+		return tiles.size();
+	}
+}
@@ -0,0 +1,22 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * The shape of a fixed size universe: what lies beyond its edges
+ */
+
+public enum Topology {
+	TORUS("torus"),			//the edges wrap around: the cell past the right edge is the left most cell of the row
+	BOUNDED("bounded");		//everything past the edges is dead, forever
+	
+	//variables
+	private final String label;	//name shown in the hud
+	
+	Topology(String label) {
+		this.label = label;
+	}
+	
+	public String toString() {
+		return label;
+	}
+}
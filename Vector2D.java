@@ -30,6 +30,35 @@ public class Vector2D {
 		}
 	}
 	
+	/*
+	 * packs the coordinates (x, y) into a single long.
+	 * x is stored in the high 32 bits and y in the low 32 bits, so every grid position has a unique key
+	 */
+	public static long pack(int x, int y) {
+		return ((long)x << 32) | (y & 0xFFFFFFFFL);
+	}
+	
+	/*
+	 * returns the x coordinate of a packed position
+	 */
+	public static int unpackX(long key) {
+		return (int)(key >> 32);
+	}
+	
+	/*
+	 * returns the y coordinate of a packed position
+	 */
+	public static int unpackY(long key) {
+		return (int)key;
+	}
+	
+	/*
+	 * returns this vector packed into a single long (see pack())
+	 */
+	public long toKey() {
+		return pack(x, y);
+	}
+	
 	/*
 	 * returns new vector with additional xAdd and yAdd
 	 */
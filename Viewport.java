@@ -0,0 +1,152 @@
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * The part of the plane shown on screen: the cell at the centre of the screen and the zoom, in pixels per cell.
+ * A viewport is immutable; panning and zooming return a new one, so the Swing thread can replace it
+ * while the game thread reads it without locking.
+ *
+ * The visible part of the plane is a grid of square blocks of getBlockSize() x getBlockSize() cells.
+ * Zoomed in, a block is a single cell and the cells are drawn one by one. Zoomed out past one cell
+ * per pixel, a block is the smallest power of two of cells that covers at least a pixel, and it is drawn
+ * shaded by how many of its cells are alive. Either way the number of blocks is bounded by the number
+ * of pixels, however big the universe is.
+ */
+
+public final class Viewport {
+	//constants
+	public static final double MAX_SCALE = 64;				//most pixels per cell
+	public static final double MIN_SCALE = 1.0 / (1 << 15);	//fewest pixels per cell, so the cells of a block still fit in an int
+	
+	//variables
+	private final double centreX;	//plane x coordinate shown at the centre of the screen
+	private final double centreY;	//plane y coordinate shown at the centre of the screen
+	private final double scale;		//pixels per cell
+	
+	/*
+	 * constructor shows the plane position (centreX, centreY) at the centre of the screen with cells of scale pixels
+	 */
+	public Viewport(double centreX, double centreY, double scale) {
+		this.centreX = centreX;
+		this.centreY = centreY;
+		this.scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+	}
+	
+	/*
+	 * returns this viewport moved so the plane follows the mouse being dragged by (dx, dy) pixels
+	 */
+	public Viewport pan(int dx, int dy) {
+		return new Viewport(centreX - dx / scale, centreY - dy / scale, scale);
+	}
+	
+	/*
+	 * returns this viewport zoomed by the factor, keeping the plane position under the screen position (x, y) where it is
+	 */
+	public Viewport zoom(double factor, int x, int y, int width, int height) {
+		double newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale * factor));
+		double planeX = centreX + (x - width / 2.0) / scale;
+		double planeY = centreY + (y - height / 2.0) / scale;
+		return new Viewport(planeX - (x - width / 2.0) / newScale, planeY - (y - height / 2.0) / newScale, newScale);
+	}
+	
+	/*
+	 * returns whether the view is zoomed out far enough that blocks of cells are drawn instead of single cells
+	 */
+	public boolean isAggregated() {
+		return scale < 1;
+	}
+	
+	/*
+	 * returns the width and height in cells of a block: 1 when zoomed in, otherwise the smallest power of two covering a pixel
+	 */
+	public int getBlockSize() {
+		int blockSize = 1;
+		while (blockSize * scale < 1) {
+			blockSize *= 2;
+		}
+		return blockSize;
+	}
+	
+	/*
+	 * returns the plane x coordinate of the left most cell of the first visible block on a screen of the given width
+	 */
+	public int getLeft(int width) {
+		return alignedEdge(centreX - width / 2.0 / scale);
+	}
+	
+	/*
+	 * returns the plane y coordinate of the top row of the first visible block on a screen of the given height
+	 */
+	public int getTop(int height) {
+		return alignedEdge(centreY - height / 2.0 / scale);
+	}
+	
+	/*
+	 * returns the number of blocks across a screen of the given width
+	 */
+	public int getColumns(int width) {
+		return blocksTo(getLeft(width), centreX + width / 2.0 / scale);
+	}
+	
+	/*
+	 * returns the number of blocks down a screen of the given height
+	 */
+	public int getRows(int height) {
+		return blocksTo(getTop(height), centreY + height / 2.0 / scale);
+	}
+	
+	/*
+	 * returns the screen x position of the left edge of the cell in plane column x
+	 */
+	public int toScreenX(long x, int width) {
+		return (int)Math.floor(width / 2.0 + (x - centreX) * scale);
+	}
+	
+	/*
+	 * returns the screen y position of the top edge of the cell in plane row y
+	 */
+	public int toScreenY(long y, int height) {
+		return (int)Math.floor(height / 2.0 + (y - centreY) * scale);
+	}
+	
+	/*
+	 * returns the block edge at or before the plane coordinate, within the range of an int
+	 */
+	private int alignedEdge(double coordinate) {
+		long blockSize = getBlockSize();
+		long cell = (long)Math.floor(Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, coordinate)));
+		return (int)Math.max(Integer.MIN_VALUE, Math.floorDiv(cell, blockSize) * blockSize);
+	}
+	
+	/*
+	 * returns the number of blocks from the block edge first up to and including the plane coordinate end
+	 */
+	private int blocksTo(int first, double end) {
+		double cells = Math.min(Integer.MAX_VALUE, Math.floor(end)) - first + 1;
+		return (int)Math.max(1, Math.ceil(cells / getBlockSize()));
+	}
+	
+	public double getCentreX() {
+		return centreX;
+	}
+	
+	public double getCentreY() {
+		return centreY;
+	}
+	
+	public double getScale() {
+		return scale;
+	}
+	
+	public boolean equals(Object other) {
+		if (!(other instanceof Viewport)) {
+			return false;
+		}
+		Viewport viewport = (Viewport)other;
+		return centreX == viewport.centreX && centreY == viewport.centreY && scale == viewport.scale;
+	}
+	
+	public int hashCode() {
+		return Double.hashCode(centreX) * 31 * 31 + Double.hashCode(centreY) * 31 + Double.hashCode(scale);
+	}
+}
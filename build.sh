@@ -0,0 +1,22 @@
+#!/bin/sh
+# Compiles the game into build/.
+# The sources at the top level and in test/ compile with plain javac. The Vector API kernel in vector/
+# needs the jdk.incubator.vector module, so it is compiled on its own with the module added; on a JDK
+# without the module it is skipped and RowKernel.create() falls back to the scalar kernel.
+#
+# pom.xml builds the same sources with Maven, runs the tests with mvn test and adds the JMH benchmarks in jmh/.
+#
+# usage: ./build.sh [test]      (test also compiles the tests in test/)
+# run:   java --add-modules jdk.incubator.vector -cp build Life
+#        (without --add-modules the game runs on the scalar kernel)
+set -e
+cd "$(dirname "$0")"
+mkdir -p build
+
+javac -d build *.java
+if ! javac --add-modules jdk.incubator.vector -cp build -d build vector/*.java; then
+	echo "build.sh: the Vector API is not available, vector/VectorRowKernel.java was not compiled" >&2
+fi
+if [ "$1" = "test" ]; then
+	javac -cp build -d build test/*.java
+fi
@@ -0,0 +1,171 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * The work measured by the JMH benchmarks in jmh/benchmarks, one case per benchmark of LifeBenchmark.
+ * JMH only accepts benchmarks in a named package, and a class in a named package cannot use the classes of the game,
+ * which are all in the default package. So a benchmark creates its case by name with create(), by reflection once per trial,
+ * and from then on only calls it through JDK interfaces: run() puts the case back to its start (the cells loaded again),
+ * getAsLong() is one operation and returns a result for the blackhole, close() releases the engine.
+ * Each fork runs a single case, so those interface calls only ever see one class and are inlined.
+ *
+ * Patterns are named as in LifeBenchmark: "soup-256x256-0.35" is a seeded random soup, anything else a state file.
+ */
+
+public abstract class BenchmarkCase implements Runnable, LongSupplier, AutoCloseable {
+	//constants
+	private static final int PROBES = 1 << 16;	//number of positions a lookup case cycles through
+	
+	/*
+	 * returns the case of the named benchmark ("step", "kernel", "blocking", "lookup", "save" or "load")
+	 * for the engine (an EngineType name, or scalar or vector for kernel) and the pattern
+	 */
+	public static BenchmarkCase create(String benchmark, String engine, String pattern) throws IOException {
+		long[] cells = cells(pattern);
+		switch (benchmark) {
+			case "step":
+				return new Stepping(EngineType.valueOf(engine).create(), cells, 1);
+			case "kernel":
+				RowKernel kernel = "vector".equals(engine) ? RowKernel.create() : new ScalarRowKernel();
+				if ("vector".equals(engine) && kernel instanceof ScalarRowKernel) {
+					throw new IllegalStateException("the Vector API is not available, run with --add-modules jdk.incubator.vector");
+				}
+				DenseLifeEngine dense = new DenseLifeEngine();
+				dense.setKernel(kernel);
+				return new Stepping(dense, cells, 1);
+			case "blocking":
+				return new Stepping(EngineType.valueOf(engine).create(), cells, TemporalLifeEngine.DEFAULT_DEPTH);
+			case "lookup":
+				return new Lookup(EngineType.valueOf(engine).create(), cells);
+			case "save":
+				return new StateFiles(cells, true);
+			case "load":
+				return new StateFiles(cells, false);
+			default:
+				throw new IllegalArgumentException("unknown benchmark: " + benchmark);
+		}
+	}
+	
+	/*
+	 * puts the case back to its start, before every iteration
+	 */
+	public void run() {
+	}
+	
+	/*
+	 * releases what the case holds
+	 */
+	public void close() throws IOException {
+	}
+	
+	/*
+	 * returns the cells of the pattern
+	 */
+	private static long[] cells(String pattern) {
+		if (pattern.startsWith("soup-")) {
+			String[] parts = pattern.split("[-x]");	//soup, width, height, density
+			return LifeBenchmark.randomSoup(Integer.parseInt(parts[1]), Double.parseDouble(parts[3]), LifeBenchmark.SOUP_SEED);
+		}
+		return LifeBenchmark.loadCells(pattern);
+	}
+	
+	/*
+	 * Steps an engine a number of generations per operation, starting from the cells every iteration
+	 */
+	private static final class Stepping extends BenchmarkCase {
+		private final LifeEngine engine;	//the engine stepped
+		private final long[] cells;			//the cells it starts from
+		private final int generations;		//generations per operation
+		
+		Stepping(LifeEngine engine, long[] cells, int generations) {
+			this.engine = engine;
+			this.cells = cells;
+			this.generations = generations;
+		}
+		
+		public void run() {
+			engine.load(cells);
+		}
+		
+		public long getAsLong() {
+			engine.step(generations);
+			return engine.getGeneration();
+		}
+		
+		public void close() {
+			LifeEngine.release(engine);
+		}
+	}
+	
+	/*
+	 * Looks up one cell per operation, cycling through positions in and around the pattern that are fixed up front
+	 */
+	private static final class Lookup extends BenchmarkCase {
+		private final LifeEngine engine;	//the engine looked up in
+		private final int[] xs;				//x of every probed position
+		private final int[] ys;				//y of every probed position
+		private int next;					//index of the next position probed
+		
+		Lookup(LifeEngine engine, long[] cells) {
+			this.engine = engine;
+			engine.load(cells);
+			
+			SplittableRandom random = new SplittableRandom(LifeBenchmark.SOUP_SEED);
+			xs = new int[PROBES];
+			ys = new int[PROBES];
+			for (int i = 0; i < PROBES; i++) {
+				xs[i] = random.nextInt(-16, 256 + 16);
+				ys[i] = random.nextInt(-16, 256 + 16);
+			}
+		}
+		
+		public long getAsLong() {
+			int i = next;
+			next = (i + 1) & (PROBES - 1);
+			return engine.isAlive(xs[i], ys[i]) ? 1 : 0;
+		}
+		
+		public void close() {
+			LifeEngine.release(engine);
+		}
+	}
+	
+	/*
+	 * Saves the cells to a .state file, or loads that file into a sparse engine, once per operation
+	 */
+	private static final class StateFiles extends BenchmarkCase {
+		private final long[] cells;			//the cells saved
+		private final File file;			//the file saved to and loaded from
+		private final boolean save;			//save the file rather than load it
+		private final LifeEngine engine;	//the engine the file is loaded into
+		
+		StateFiles(long[] cells, boolean save) throws IOException {
+			this.cells = cells;
+			this.save = save;
+			this.engine = new SparseLifeEngine();
+			file = File.createTempFile("life-benchmark", ".state");
+			file.deleteOnExit();
+			if (!StateFile.save(file.getPath(), cells)) {
+				throw new IOException("cannot write " + file);
+			}
+		}
+		
+		public long getAsLong() {
+			if (save) {
+				return StateFile.save(file.getPath(), cells) ? 1 : 0;
+			}
+			StateFile.load(file.getPath(), engine);
+			return engine.population();
+		}
+		
+		public void close() throws IOException {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+}
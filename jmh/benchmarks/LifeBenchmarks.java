@@ -0,0 +1,217 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * JMH benchmark suite for the engines and the state files, the same benchmarks as LifeBenchmark:
+ * generations/s of every engine on random soups and bundled patterns, the scalar against the vector row kernel,
+ * temporal blocking against stepping a generation at a time, the latency of one cell lookup, and state files saved and loaded per second.
+ * JMH runs every benchmark in fresh forks, warms it up until the measured iterations, and sinks every result into a blackhole,
+ * so unlike LifeBenchmark the scores of different benchmarks and of different runs can be compared.
+ * The work itself is done by BenchmarkCase (see there for why it is reached by reflection).
+ *
+ * Build with mvn -Pjmh package and run from the repository root so the states directory is found.
+ * usage: java -jar target/benchmarks.jar [regexp] [-p engine=SPARSE,DENSE] [-p pattern=soup-256x256-0.35] [JMH options, see -h]
+ * e.g.   java -jar target/benchmarks.jar LifeBenchmarks.lookup -p engine=SPARSE,TILES -rf json
+ */
+
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LifeBenchmarks {
+	//constants
+	private static final int BLOCKING_GENERATIONS = 16;	//generations per blocking operation, TemporalLifeEngine.DEFAULT_DEPTH
+	
+	/*
+	 * The case of a benchmark, created once per trial and put back to its start before every iteration
+	 */
+	@State(Scope.Thread)
+	public abstract static class Case {
+		LongSupplier work;	//the BenchmarkCase, one operation per getAsLong()
+		
+		abstract String benchmark();
+		abstract String engine();
+		abstract String pattern();
+		
+		@Setup(Level.Trial)
+		public void create() throws ReflectiveOperationException {
+			if (benchmark().equals("blocking") && Class.forName("TemporalLifeEngine").getField("DEFAULT_DEPTH").getInt(null) != BLOCKING_GENERATIONS) {
+				throw new IllegalStateException("BLOCKING_GENERATIONS no longer matches TemporalLifeEngine.DEFAULT_DEPTH");
+			}
+			work = (LongSupplier)Class.forName("BenchmarkCase")
+					.getMethod("create", String.class, String.class, String.class)
+					.invoke(null, benchmark(), engine(), pattern());
+		}
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			((Runnable)work).run();
+		}
+		
+		@TearDown(Level.Trial)
+		public void close() throws Exception {
+			((AutoCloseable)work).close();
+		}
+	}
+	
+	public static class Stepping extends Case {
+		@Param({"SPARSE", "DENSE", "PARALLEL", "TEMPORAL", "HASHLIFE", "TILES", "TORUS", "BOUNDED", "OFF_HEAP"})
+		public String engine;
+		
+		@Param({"soup-64x64-0.1", "soup-64x64-0.35", "soup-64x64-0.5",
+				"soup-256x256-0.1", "soup-256x256-0.35", "soup-256x256-0.5",
+				"soup-1024x1024-0.1", "soup-1024x1024-0.35", "soup-1024x1024-0.5",
+				"states/gosperGliderGun.state", "states/skinnyGrower.state", "states/heavyWeightSpaceShip.state"})
+		public String pattern;
+		
+		String benchmark() {
+			return "step";
+		}
+		
+		String engine() {
+			return engine;
+		}
+		
+		String pattern() {
+			return pattern;
+		}
+	}
+	
+	public static class Kernel extends Case {
+		@Param({"scalar", "vector"})
+		public String kernel;
+		
+		@Param({"0.1", "0.35", "0.5"})
+		public String density;
+		
+		String benchmark() {
+			return "kernel";
+		}
+		
+		String engine() {
+			return kernel;
+		}
+		
+		String pattern() {
+			return "soup-1024x1024-" + density;
+		}
+	}
+	
+	public static class Blocking extends Case {
+		@Param({"DENSE", "TEMPORAL"})
+		public String engine;
+		
+		String benchmark() {
+			return "blocking";
+		}
+		
+		String engine() {
+			return engine;
+		}
+		
+		String pattern() {
+			return "soup-4096x4096-0.35";	//bigger than the L2 cache
+		}
+	}
+	
+	public static class Lookup extends Case {
+		@Param({"SPARSE", "DENSE", "PARALLEL", "TEMPORAL", "HASHLIFE", "TILES", "TORUS", "BOUNDED", "OFF_HEAP"})
+		public String engine;
+		
+		String benchmark() {
+			return "lookup";
+		}
+		
+		String engine() {
+			return engine;
+		}
+		
+		String pattern() {
+			return "soup-256x256-0.35";
+		}
+	}
+	
+	public static class StateFiles extends Case {
+		@Param({"save", "load"})
+		public String direction;
+		
+		@Param({"64", "256", "1024"})
+		public String size;
+		
+		String benchmark() {
+			return direction;
+		}
+		
+		String engine() {
+			return "SPARSE";
+		}
+		
+		String pattern() {
+			return "soup-" + size + "x" + size + "-0.35";
+		}
+	}
+	
+	/*
+	 * generations/s of the engine, from the pattern every iteration
+	 */
+	@Benchmark
+	public long step(Stepping state) {
+		return state.work.getAsLong();
+	}
+	
+	/*
+	 * generations/s of the dense engine with the scalar or the vector row kernel
+	 */
+	@Benchmark
+	public long kernel(Kernel state) {
+		return state.work.getAsLong();
+	}
+	
+	/*
+	 * generations/s of the dense engine and of temporal blocking, both stepped with step(n) like the game loop does
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BLOCKING_GENERATIONS)
+	public long blocking(Blocking state) {
+		return state.work.getAsLong();
+	}
+	
+	/*
+	 * the time of one isAlive lookup of a cell in or around the pattern
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public long lookup(Lookup state) {
+		return state.work.getAsLong();
+	}
+	
+	/*
+	 * .state files saved or loaded per second
+	 */
+	@Benchmark
+	public long stateFile(StateFiles state) {
+		return state.work.getAsLong();
+	}
+}
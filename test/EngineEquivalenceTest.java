@@ -0,0 +1,255 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * EngineEquivalenceTest checks that the engines which claim to step the same cells as a simpler engine do.
+ * Each engine is loaded with the same random soup as its reference, both are stepped with step(n) by the same
+ * number of generations at a time, and after every step their generations and alive cells are compared.
+ * Every pair is run under Conway and under HighLife, which takes the table path of the word kernel.
+ *
+ * ParallelLifeEngine against DenseLifeEngine: a soup wider than a tile of the workers and taller than a tile,
+ * so the board is split across the pool.
+ * TemporalLifeEngine against DenseLifeEngine: depth 1, which steps one generation at a time, and MAX_DEPTH,
+ * stepped in full passes and in steps that end with a shorter pass, on a soup bigger than a tile of the engine.
+ * OffHeapLifeEngine against a BoundedLifeEngine torus of the same size, filled with a soup so cells wrap at every edge:
+ * in direct memory, and memory mapped with a checkpoint between steps so the steps go round all three planes.
+ * Its snapshots of rectangles, which only read the words in view, must also match those of the torus.
+ * HashLifeEngine against SparseLifeEngine: a soup around (0, 0) stepped one generation at a time and in jumps
+ * of a power of two and of an odd number, with the default node cap and with a cap small enough that jumps are
+ * abandoned and made again as shorter ones.
+ * The engines that keep their Zobrist hash up to date on every birth and death against the hash of their own cells:
+ * BoundedLifeEngine as a torus and with hard edges, the dense engines and the off-heap torus. The hash must match
+ * the hash of the snapshot after every step and after cells are set, also when hashing only starts after some steps.
+ *
+ * usage: ./build.sh test
+ *        java -cp build EngineEquivalenceTest
+ * exits with status 1 if a check fails
+ */
+
+public class EngineEquivalenceTest {
+	//constants
+	private static final Rule[] RULES = {Rule.CONWAY, Rule.parse("B36/S23")};	//rules every pair is run under
+	private static final double DENSITY = 0.35;		//chance of a cell of a soup being alive
+	private static final int THREADS = 4;			//workers of the parallel engine, more than one even on a single core
+	
+	private static int failures;	//number of checks that failed
+	
+	public static void main(String[] args) throws IOException {
+		checkParallel();
+		checkTemporal();
+		checkOffHeap();
+		checkHashLife();
+		checkHashes();
+		
+		System.out.println(failures == 0 ? "OK" : "FAIL " + failures + " check(s) failed");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+	
+	/*
+	 * checks ParallelLifeEngine against DenseLifeEngine on a soup of 2700 x 700 cells
+	 */
+	private static void checkParallel() {
+		long[] cells = soup(new Random(1), 0, 0, 2700, 700);
+		for (Rule rule : RULES) {
+			ParallelLifeEngine parallel = new ParallelLifeEngine(THREADS);
+			check("parallel matches dense under " + rule, compare(parallel, new DenseLifeEngine(), cells, rule, 1, 100));
+			parallel.close();
+		}
+	}
+	
+	/*
+	 * checks TemporalLifeEngine against DenseLifeEngine on a soup of 5000 x 600 cells, at the smallest and the largest depth
+	 */
+	private static void checkTemporal() {
+		long[] cells = soup(new Random(2), 0, 0, 5000, 600);
+		//a step of 100 at MAX_DEPTH is a full pass followed by a shorter one
+		int[][] runs = {{1, 10}, {TemporalLifeEngine.MAX_DEPTH, TemporalLifeEngine.MAX_DEPTH}, {TemporalLifeEngine.MAX_DEPTH, 100}};	//depth and step size
+		for (Rule rule : RULES) {
+			for (int[] run : runs) {
+				check("temporal at depth " + run[0] + " matches dense in steps of " + run[1] + " under " + rule,
+						compare(new TemporalLifeEngine(run[0]), new DenseLifeEngine(), cells, rule, run[1], 3 * run[1]));
+			}
+		}
+	}
+	
+	/*
+	 * checks OffHeapLifeEngine against a BoundedLifeEngine torus of 320 x 200 cells (a width that needs no rounding)
+	 */
+	private static void checkOffHeap() throws IOException {
+		int width = 320;
+		int height = 200;
+		long[] cells = soup(new Random(3), -width / 2, -height / 2, width, height);
+		
+		for (Rule rule : RULES) {
+			OffHeapLifeEngine direct = new OffHeapLifeEngine(width, height);
+			LifeEngine reference = new BoundedLifeEngine(width, height, Topology.TORUS);
+			check("off-heap matches the torus under " + rule, compare(direct, reference, cells, rule, 1, 200));
+			
+			//rectangles inside the board, across word boundaries, across its edges and off it
+			int[][] rectangles = {{-10, -10, 20, 20}, {-70, -5, 130, 1}, {-200, -120, 100, 80}, {100, 50, 200, 200}, {500, 0, 10, 10}, {-3, 7, 0, 5}};
+			boolean sameInside = true;
+			for (int[] rectangle : rectangles) {
+				long[] inside = direct.snapshot(rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+				long[] expected = reference.snapshot(rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+				Arrays.sort(inside);
+				Arrays.sort(expected);
+				sameInside &= Arrays.equals(inside, expected);
+			}
+			check("off-heap snapshots of rectangles match the torus under " + rule, sameInside);
+			direct.close();
+			
+			File file = File.createTempFile("board", ".bin");
+			file.deleteOnExit();
+			OffHeapLifeEngine mapped = OffHeapLifeEngine.map(file.toPath(), width, height);
+			LifeEngine torus = new BoundedLifeEngine(width, height, Topology.TORUS);
+			boolean same = compare(mapped, torus, cells, rule, 1, 1);
+			for (int i = 0; i < 40 && same; i++) {
+				mapped.flush();
+				mapped.step(5);
+				torus.step(5);
+				same = sameCells(mapped, torus);
+			}
+			check("mapped off-heap with checkpoints matches the torus under " + rule, same);
+			mapped.close();
+		}
+	}
+	
+	/*
+	 * checks HashLifeEngine against SparseLifeEngine on a soup of 64 x 64 cells centred on (0, 0)
+	 */
+	private static void checkHashLife() {
+		long[] cells = soup(new Random(4), -32, -32, 64, 64);
+		int[] stepSizes = {1, 1024, 1000};
+		long smallCap = 1 << 14;
+		
+		for (Rule rule : RULES) {
+			for (int stepSize : stepSizes) {
+				int generations = stepSize == 1 ? 500 : 4 * stepSize;
+				check("hashlife matches sparse in steps of " + stepSize + " under " + rule,
+						compare(new HashLifeEngine(), new SparseLifeEngine(), cells, rule, stepSize, generations));
+			}
+			check("hashlife capped at " + smallCap + " nodes matches sparse in steps of 1024 under " + rule,
+					compare(new HashLifeEngine(smallCap), new SparseLifeEngine(), cells, rule, 1024, 4096));
+		}
+	}
+	
+	/*
+	 * checks the kept hash of the engines against the hash of their cells, on a soup of 200 x 150 cells
+	 */
+	private static void checkHashes() {
+		int width = 200;
+		int height = 150;
+		long[] cells = soup(new Random(5), -width / 2, -height / 2, width, height);
+		
+		for (Rule rule : RULES) {
+			for (Topology topology : Topology.values()) {
+				check("the " + topology + " hash matches its cells under " + rule,
+						keepsHash(new BoundedLifeEngine(width, height, topology), cells, rule, 1));
+			}
+			check("the dense hash matches its cells under " + rule, keepsHash(new DenseLifeEngine(), cells, rule, 1));
+			//a soup of 2700 x 700 cells so the parallel engine splits the board into tiles
+			ParallelLifeEngine parallel = new ParallelLifeEngine(THREADS);
+			check("the parallel hash matches its cells under " + rule, keepsHash(parallel, soup(new Random(6), 0, 0, 2700, 700), rule, 1));
+			parallel.close();
+			check("the temporal hash matches its cells in passes of " + TemporalLifeEngine.DEFAULT_DEPTH + " under " + rule,
+					keepsHash(new TemporalLifeEngine(), cells, rule, TemporalLifeEngine.DEFAULT_DEPTH));
+			OffHeapLifeEngine offHeap = new OffHeapLifeEngine(width, height);
+			check("the off-heap hash matches its cells under " + rule, keepsHash(offHeap, cells, rule, 1));
+			offHeap.close();
+		}
+	}
+	
+	/*
+	 * loads the cells, steps the engine a few times before hashing it, then returns whether the hash it keeps matches
+	 * its cells after every further step of stepSize generations and after every cell set between them
+	 */
+	private static boolean keepsHash(LifeEngine engine, long[] cells, Rule rule, int stepSize) {
+		engine.setRule(rule);
+		engine.load(cells);
+		engine.step(3 * stepSize);
+		boolean same = engine.hash() == hashOf(engine);
+		for (int g = 0; g < 100 && same; g++) {
+			engine.step(stepSize);
+			engine.setAlive(g - 200, 0, g % 3 != 0);	//cells set between steps, on and off a board of 200 cells
+			same = engine.hash() == hashOf(engine);
+		}
+		return same;
+	}
+	
+	/*
+	 * returns the Zobrist hash of the alive cells of the engine, computed from its snapshot
+	 */
+	private static long hashOf(LifeEngine engine) {
+		long hash = 0;
+		for (long cell : engine.snapshot()) {
+			hash ^= CycleDetector.zobrist(cell);
+		}
+		return hash;
+	}
+	
+	/*
+	 * loads the cells into both engines under the rule, steps them stepSize generations at a time
+	 * up to the given number of generations and returns whether they hold the same cells after every step
+	 */
+	private static boolean compare(LifeEngine engine, LifeEngine reference, long[] cells, Rule rule, int stepSize, int generations) {
+		engine.setRule(rule);
+		reference.setRule(rule);
+		engine.load(cells);
+		reference.load(cells);
+		
+		for (int g = 0; g < generations; g += stepSize) {
+			engine.step(stepSize);
+			reference.step(stepSize);
+			if (engine.getGeneration() != reference.getGeneration() || !sameCells(engine, reference)) {
+				System.out.println("     differs at generation " + reference.getGeneration() + ": "
+						+ engine.population() + " cells instead of " + reference.population());
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * returns whether both engines hold the same alive cells
+	 */
+	private static boolean sameCells(LifeEngine a, LifeEngine b) {
+		if (a.population() != b.population()) {
+			return false;
+		}
+		long[] cellsA = a.snapshot();
+		long[] cellsB = b.snapshot();
+		Arrays.sort(cellsA);
+		Arrays.sort(cellsB);
+		return Arrays.equals(cellsA, cellsB);
+	}
+	
+	/*
+	 * prints the result of a check and counts it if it failed
+	 */
+	private static void check(String description, boolean passed) {
+		System.out.println((passed ? "ok   " : "FAIL ") + description);
+		if (!passed) {
+			failures++;
+		}
+	}
+	
+	/*
+	 * returns the packed positions of a random soup of width x height cells with its top left cell at (left, top)
+	 */
+	private static long[] soup(Random random, int left, int top, int width, int height) {
+		LongList cells = new LongList();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if (random.nextDouble() < DENSITY) {
+					cells.add(Vector2D.pack(left + x, top + y));
+				}
+			}
+		}
+		return cells.toArray();
+	}
+}
@@ -0,0 +1,128 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * GameLoopMaxSpeedTest checks that at max speed the game loop never parks its thread.
+ * It used to park after every frame until the next one was due, so max speed ran several times
+ * slower than a fixed rate the engine could not keep up with. Counting the waits of the FrameScheduler
+ * gives the same answer on a loaded machine as on an idle one, unlike comparing two throughputs.
+ *
+ * The scheduler is checked on its own first: when unlimited, the batches of a frame run until the
+ * upcoming frame deadline and waitForNextEvent() does not park unless the game has halted, while at a
+ * fixed rate it does. Then the game loop runs headless on a torus filled with a soup: at max speed the
+ * generation keeps advancing from frame to frame and the scheduler does not wait once.
+ *
+ * usage: ./build.sh test
+ *        java -Djava.awt.headless=true -cp build GameLoopMaxSpeedTest
+ * exits with status 1 if a check fails
+ */
+
+public class GameLoopMaxSpeedTest {
+	//constants
+	private static final int BOARD_SIZE = 512;			//width and height of the torus
+	private static final double DENSITY = 0.35;			//chance of a cell of the soup being alive
+	private static final double RENDER_RATE = 2;		//frames per second of the scheduler checked on its own, slow so no deadline passes between two checks
+	private static final long SETTLE_MILLIS = 1000;		//time for the loop to load the soup and leave the fixed rate
+	private static final long MEASURE_MILLIS = 2000;	//time the loop is watched at max speed
+	
+	private static int failures;	//number of checks that failed
+	
+	public static void main(String[] args) throws IOException, InterruptedException {
+		checkScheduler();
+		checkGameLoop();
+		
+		System.out.println(failures == 0 ? "OK" : "FAIL " + failures + " check(s) failed");
+		System.exit(failures == 0 ? 0 : 1);	//the hud may have started the AWT threads
+	}
+	
+	/*
+	 * checks the frame end and the waits of a FrameScheduler without a game loop
+	 */
+	private static void checkScheduler() {
+		FrameScheduler scheduler = new FrameScheduler(1, RENDER_RATE);
+		long now = System.nanoTime();
+		scheduler.reset(now);
+		scheduler.renderDue(now);
+		check("the batches of a frame run until the upcoming frame deadline",
+				scheduler.getFrameEnd(now) == now + scheduler.getRenderPeriod());
+		check("a frame that is already due waits for one batch at most",
+				scheduler.getFrameEnd(now + 2 * scheduler.getRenderPeriod()) == now + 2 * scheduler.getRenderPeriod());
+		
+		scheduler.setUnlimited(true);
+		scheduler.waitForNextEvent(false);
+		check("max speed does not park", scheduler.getWaits() == 0);
+		
+		scheduler.renderDue(System.nanoTime());	//moves the frame deadline past now if it has passed
+		scheduler.waitForNextEvent(true);
+		check("max speed parks once the game has halted", scheduler.getWaits() == 1);
+		
+		scheduler.setUnlimited(false);
+		scheduler.generationsDue(System.nanoTime());
+		scheduler.generationsDue(System.nanoTime());
+		scheduler.renderDue(System.nanoTime());
+		scheduler.waitForNextEvent(false);
+		check("a fixed rate parks until the next generation or frame", scheduler.getWaits() == 2);
+	}
+	
+	/*
+	 * runs the game loop at max speed on a soup and checks it never waits
+	 */
+	private static void checkGameLoop() throws IOException, InterruptedException {
+		System.setProperty("life.board.width", Integer.toString(BOARD_SIZE));
+		System.setProperty("life.board.height", Integer.toString(BOARD_SIZE));
+		
+		File soup = File.createTempFile("soup", ".state");
+		soup.deleteOnExit();
+		if (!StateFile.save(soup.getPath(), soup(new Random(1)), Rule.CONWAY)) {
+			check("the soup is written to " + soup, false);
+			return;
+		}
+		
+		GameManager gm = new GameManager();
+		gm.getHud().requestEngineChange(EngineType.TORUS);
+		gm.getHud().requestLoadState(soup.getPath());
+		gm.setUnlimited(true);
+		Thread.sleep(SETTLE_MILLIS);
+		
+		long startWaits = gm.getScheduler().getWaits();
+		long startGeneration = gm.getMetrics().getGeneration();
+		Thread.sleep(MEASURE_MILLIS);
+		long waits = gm.getScheduler().getWaits() - startWaits;
+		long generations = gm.getMetrics().getGeneration() - startGeneration;
+		gm.setRunning(false);
+		gm.getThread().join();
+		
+		System.out.println("max speed: " + generations + " generations and " + waits + " waits in " + MEASURE_MILLIS + " ms");
+		check("the game loop steps and renders at max speed", generations > 0);
+		check("the game loop never parks at max speed", waits == 0);
+	}
+	
+	/*
+	 * prints the result of a check and counts it if it failed
+	 */
+	private static void check(String description, boolean passed) {
+		System.out.println((passed ? "ok   " : "FAIL ") + description);
+		if (!passed) {
+			failures++;
+		}
+	}
+	
+	/*
+	 * returns the packed positions of a random soup covering the torus
+	 */
+	private static long[] soup(Random random) {
+		LongList cells = new LongList();
+		for (int y = 0; y < BOARD_SIZE; y++) {
+			for (int x = 0; x < BOARD_SIZE; x++) {
+				if (random.nextDouble() < DENSITY) {
+					cells.add(Vector2D.pack(x, y));
+				}
+			}
+		}
+		return cells.toArray();
+	}
+}
@@ -0,0 +1,101 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * SparseAllocationTest checks that SparseLifeEngine allocates nothing per generation once its maps
+ * have grown to the size of the pattern. Each pattern is stepped WARMUP_GENERATIONS generations so the maps
+ * reach their size and the JIT compiles the step, then the bytes the thread allocates over
+ * MEASURED_GENERATIONS more generations are read from com.sun.management.ThreadMXBean.
+ * The patterns keep a constant size: still lifes, oscillators, spaceships and a soup that has settled.
+ * Still lifes and period 2 oscillators, the settled soup included, are stepped by the period two shortcut of the engine,
+ * which only toggles the cells of the last generation. The spaceships and the oscillators of period 3 and 15 never take it,
+ * so they measure findChanges and evaluate, the path that has to stay free of allocation.
+ *
+ * usage: ./build.sh test
+ *        java -cp build SparseAllocationTest
+ * exits with status 1 if a pattern allocates more than ALLOWED_BYTES
+ */
+
+public class SparseAllocationTest {
+	//constants
+	private static final int WARMUP_GENERATIONS = 20000;	//generations stepped before measuring
+	private static final int MEASURED_GENERATIONS = 1000;	//generations measured
+	private static final long ALLOWED_BYTES = 1024;			//slack for the allocation counter itself, far below one object per generation
+	
+	public static void main(String[] args) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			System.out.println("FAIL this JVM cannot count allocated bytes");
+			System.exit(1);
+		}
+		threads.setThreadAllocatedMemoryEnabled(true);
+		long thread = Thread.currentThread().getId();
+		
+		String[] names = {"block", "beacon", "glider", "lightweight spaceship", "heavyweight spaceship", "pulsar", "pentadecathlon", "settled soup"};
+		long[][] patterns = {	cells("##", "##"),
+								cells("##  ", "##  ", "  ##", "  ##"),
+								cells(" # ", "  #", "###"),
+								cells(" #  #", "#    ", "#   #", "#### "),
+								cells("   ##  ", " #    #", "#      ", "#     #", "###### "),
+								cells(	"  ###   ###  ", "             ", "#    # #    #", "#    # #    #", "#    # #    #", "  ###   ###  ", "             ",
+										"  ###   ###  ", "#    # #    #", "#    # #    #", "#    # #    #", "             ", "  ###   ###  "),
+								cells("  #    #  ", "## #### ##", "  #    #  "),
+								soup(new Random(1), 64, 0.35)};
+		
+		int failures = 0;
+		for (int i = 0; i < patterns.length; i++) {
+			SparseLifeEngine engine = new SparseLifeEngine();
+			engine.load(patterns[i]);
+			engine.step(WARMUP_GENERATIONS);
+			
+			long before = threads.getThreadAllocatedBytes(thread);
+			for (int g = 0; g < MEASURED_GENERATIONS; g++) {
+				engine.step();
+			}
+			long allocated = threads.getThreadAllocatedBytes(thread) - before;
+			
+			boolean passed = allocated <= ALLOWED_BYTES;
+			System.out.println((passed ? "ok   " : "FAIL ") + names[i] + ": " + allocated + " bytes in "
+					+ MEASURED_GENERATIONS + " generations (population " + engine.population() + ")");
+			if (!passed) {
+				failures++;
+			}
+		}
+		
+		System.out.println(failures == 0 ? "OK" : "FAIL " + failures + " pattern(s) allocated while stepping");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+	
+	/*
+	 * returns the packed positions of the '#' characters of the rows, the first row at y = 0
+	 */
+	private static long[] cells(String... rows) {
+		LongList cells = new LongList();
+		for (int y = 0; y < rows.length; y++) {
+			for (int x = 0; x < rows[y].length(); x++) {
+				if (rows[y].charAt(x) == '#') {
+					cells.add(Vector2D.pack(x, y));
+				}
+			}
+		}
+		return cells.toArray();
+	}
+	
+	/*
+	 * returns the packed positions of a random soup of size x size cells
+	 */
+	private static long[] soup(Random random, int size, double density) {
+		LongList cells = new LongList();
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				if (random.nextDouble() < density) {
+					cells.add(Vector2D.pack(x, y));
+				}
+			}
+		}
+		return cells.toArray();
+	}
+}
@@ -0,0 +1,127 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * StateFileTest checks that .state files written by the first version of the game still load the same way.
+ * That version saved every entity it held, the dead neighbours around the alive cells included, so a file saved
+ * after a step has a ring of '0's around the pattern; StateFile.save crops to the alive cells.
+ * Every bundled state is loaded with StateFile.load and compared with the cells the original loader read from it
+ * (a '#' in column j of line i is the cell (j, i)), and an old save with the ring is saved again and must hold
+ * the same pattern moved to the top left, as must any pattern saved and loaded back.
+ *
+ * usage: ./build.sh test
+ *        java -cp build StateFileTest
+ * run from the repository root, so the states directory is found
+ * exits with status 1 if a check fails
+ */
+
+public class StateFileTest {
+	//constants
+	private static final String STATES = "states";							//directory of the bundled states
+	private static final String OLD_SAVE = "states/gosperGliderGun.state.state";	//saved by the first version after some steps
+	
+	private static int failures;	//number of checks that failed
+	
+	public static void main(String[] args) throws IOException {
+		File[] files = new File(STATES).listFiles((directory, name) -> name.endsWith(".state"));
+		Arrays.sort(files);
+		for (File file : files) {
+			check(file.getName() + " loads the cells of the original loader", Arrays.equals(load(file.getPath()), loadOriginal(file.getPath())));
+		}
+		
+		//the ring of dead cells is dropped, the pattern is the same
+		long[] old = load(OLD_SAVE);
+		check(OLD_SAVE + " has a ring of dead cells", StateFile.getBounds(old)[0] > 0 && StateFile.getBounds(old)[1] > 0);
+		check(OLD_SAVE + " saved again holds the same pattern", Arrays.equals(saveAndLoad(old), toTopLeft(old)));
+		
+		//a pattern saved after some steps, with cells on either side of (0, 0)
+		SparseLifeEngine engine = new SparseLifeEngine();
+		engine.load(old);
+		engine.step(57);
+		engine.setAlive(-40, -7, true);
+		engine.setAlive(-39, -7, true);
+		long[] stepped = engine.snapshot();
+		check("a pattern saved after 57 generations loads back at the top left", Arrays.equals(saveAndLoad(stepped), toTopLeft(stepped)));
+		
+		System.out.println(failures == 0 ? "OK" : "FAIL " + failures + " check(s) failed");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+	
+	/*
+	 * returns the sorted cells StateFile.load reads from the file
+	 */
+	private static long[] load(String file) {
+		SparseLifeEngine engine = new SparseLifeEngine();
+		if (!StateFile.load(file, engine)) {
+			throw new IllegalStateException("cannot load " + file);
+		}
+		long[] cells = engine.snapshot();
+		Arrays.sort(cells);
+		return cells;
+	}
+	
+	/*
+	 * returns the sorted cells the original loader read from the file: a '#' in column j of line i is the cell (j, i)
+	 */
+	private static long[] loadOriginal(String file) throws IOException {
+		List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+		LongList cells = new LongList();
+		for (int i = 0; i < lines.size(); i++) {
+			for (int j = 0; j < lines.get(i).length(); j++) {
+				if (lines.get(i).charAt(j) == '#') {
+					cells.add(Vector2D.pack(j, i));
+				}
+			}
+		}
+		long[] sorted = cells.toArray();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+	
+	/*
+	 * saves the cells to a temporary .state file and returns the sorted cells loaded back from it
+	 */
+	private static long[] saveAndLoad(long[] cells) throws IOException {
+		Path file = Files.createTempFile("state-file-test", ".state");
+		try {
+			if (!StateFile.save(file.toString(), cells)) {
+				throw new IOException("cannot write " + file);
+			}
+			return load(file.toString());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	/*
+	 * returns the sorted cells moved so the top left of their bounds is (0, 0), where a saved file puts them
+	 */
+	private static long[] toTopLeft(long[] cells) {
+		int[] bounds = StateFile.getBounds(cells);
+		long[] moved = new long[cells.length];
+		for (int i = 0; i < cells.length; i++) {
+			moved[i] = Vector2D.pack(Vector2D.unpackX(cells[i]) - bounds[0], Vector2D.unpackY(cells[i]) - bounds[1]);
+		}
+		Arrays.sort(moved);
+		return moved;
+	}
+	
+	/*
+	 * prints the result of a check and counts it if it failed
+	 */
+	private static void check(String description, boolean passed) {
+		System.out.println((passed ? "ok   " : "FAIL ") + description);
+		if (!passed) {
+			failures++;
+		}
+	}
+}
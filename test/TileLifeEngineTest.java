@@ -0,0 +1,134 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * TileLifeEngineTest checks that TileLifeEngine steps the same cells as SparseLifeEngine.
+ * The tile engine only creates the missing tiles around a tile whose edge changed, and frees tiles that stay empty,
+ * so the cases it can get wrong sit on the boundaries between tiles: a pattern that used to miss a birth in a freed
+ * tile is checked first, then every pattern of the 4 x 4 cells around a corner where four tiles meet,
+ * then random soups around such corners under Conway and HighLife.
+ * After every generation the populations and hashes of both engines are compared, and at the end their alive cells.
+ *
+ * usage: ./build.sh test
+ *        java -cp build TileLifeEngineTest
+ * exits with status 1 if a check fails
+ */
+
+public class TileLifeEngineTest {
+	//constants
+	private static final int TILE_SIZE = 64;			//width and height of a tile of the engine
+	private static final int CORNER_SIZE = 4;			//width and height of the box around a tile corner whose patterns are all checked
+	private static final int CORNER_GENERATIONS = 8;	//generations each pattern of the box is stepped
+	private static final int SOUPS = 500;				//number of random soups per rule
+	private static final int SOUP_SIZE = 16;			//width and height of a soup
+	private static final int SPREAD = 12;				//largest distance between the centre of a soup and the tile corner
+	private static final double DENSITY = 0.4;			//chance of a cell of a soup being alive
+	private static final int GENERATIONS = 100;			//generations each soup is stepped
+	
+	private static int failures;	//number of checks that failed
+	
+	public static void main(String[] args) {
+		//a death on the edge of a tile lets (127, 128) be born in the freed tile below it at generation 2
+		long[] missedBirth = {	Vector2D.pack(126, 127), Vector2D.pack(127, 126), Vector2D.pack(128, 127),
+								Vector2D.pack(128, 128), Vector2D.pack(128, 129), Vector2D.pack(129, 129)};
+		check("a birth in a freed tile next to a death on the edge", compare(missedBirth, Rule.CONWAY, 50));
+		
+		//every pattern of the box centred on the corner of the tiles at (128, 128)
+		int corner = 2 * TILE_SIZE - CORNER_SIZE / 2;
+		int patterns = 1 << (CORNER_SIZE * CORNER_SIZE);
+		int cornerMismatches = 0;
+		for (int mask = 1; mask < patterns; mask++) {
+			LongList cells = new LongList();
+			for (int i = 0; i < CORNER_SIZE * CORNER_SIZE; i++) {
+				if ((mask & (1 << i)) != 0) {
+					cells.add(Vector2D.pack(corner + i % CORNER_SIZE, corner + i / CORNER_SIZE));
+				}
+			}
+			if (!compare(cells.toArray(), Rule.CONWAY, CORNER_GENERATIONS)) {
+				cornerMismatches++;
+			}
+		}
+		check((patterns - 1) + " patterns of the " + CORNER_SIZE + "x" + CORNER_SIZE + " cells on a tile corner ("
+				+ cornerMismatches + " differ)", cornerMismatches == 0);
+		
+		Rule[] rules = {Rule.CONWAY, Rule.parse("B36/S23")};
+		for (int r = 0; r < rules.length; r++) {
+			Random random = new Random(r);
+			int mismatches = 0;
+			for (int i = 0; i < SOUPS; i++) {
+				//near a corner of a tile at a random multiple of the tile size, negative ones included
+				int centreX = (random.nextInt(5) - 2) * TILE_SIZE + random.nextInt(2 * SPREAD + 1) - SPREAD;
+				int centreY = (random.nextInt(5) - 2) * TILE_SIZE + random.nextInt(2 * SPREAD + 1) - SPREAD;
+				if (!compare(soup(random, centreX - SOUP_SIZE / 2, centreY - SOUP_SIZE / 2), rules[r], GENERATIONS)) {
+					mismatches++;
+				}
+			}
+			check(SOUPS + " soups around tile corners under " + rules[r] + " (" + mismatches + " differ)", mismatches == 0);
+		}
+		
+		System.out.println(failures == 0 ? "OK" : "FAIL " + failures + " check(s) failed");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+	
+	/*
+	 * steps the cells on both engines and returns whether they agree after every generation.
+	 * Equal hashes stand in for equal cells while stepping, the cells themselves are compared at the end
+	 */
+	private static boolean compare(long[] cells, Rule rule, int generations) {
+		LifeEngine tiles = new TileLifeEngine();
+		LifeEngine sparse = new SparseLifeEngine();
+		tiles.setRule(rule);
+		sparse.setRule(rule);
+		tiles.load(cells);
+		sparse.load(cells);
+		
+		for (int g = 1; g <= generations; g++) {
+			tiles.step();
+			sparse.step();
+			if (tiles.population() != sparse.population() || tiles.hash() != sparse.hash()) {
+				System.out.println("     differs at generation " + g + ": " + tiles.population() + " cells instead of " + sparse.population());
+				return false;
+			}
+		}
+		return sameCells(tiles, sparse);
+	}
+	
+	/*
+	 * returns whether both engines hold the same alive cells
+	 */
+	private static boolean sameCells(LifeEngine a, LifeEngine b) {
+		long[] cellsA = a.snapshot();
+		long[] cellsB = b.snapshot();
+		Arrays.sort(cellsA);
+		Arrays.sort(cellsB);
+		return Arrays.equals(cellsA, cellsB);
+	}
+	
+	/*
+	 * prints the result of a check and counts it if it failed
+	 */
+	private static void check(String description, boolean passed) {
+		System.out.println((passed ? "ok   " : "FAIL ") + description);
+		if (!passed) {
+			failures++;
+		}
+	}
+	
+	/*
+	 * returns the packed positions of a random soup of SOUP_SIZE x SOUP_SIZE cells with its top left cell at (left, top)
+	 */
+	private static long[] soup(Random random, int left, int top) {
+		LongList cells = new LongList();
+		for (int y = 0; y < SOUP_SIZE; y++) {
+			for (int x = 0; x < SOUP_SIZE; x++) {
+				if (random.nextDouble() < DENSITY) {
+					cells.add(Vector2D.pack(left + x, top + y));
+				}
+			}
+		}
+		return cells.toArray();
+	}
+}
@@ -0,0 +1,178 @@
+import jdk.incubator.vector.LongVector;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+import static jdk.incubator.vector.VectorOperators.XOR;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * @version 18/10/2026
+ * @author Django Scrivener (463015)
+ *
+ * A RowKernel written with the Vector API: the full adders of DenseLifeEngine.nextWord run on
+ * as many words at once as the widest vector of the CPU holds (4 words, 256 cells, with AVX2).
+ * The words either side of each word are loaded as vectors one word to the left and right,
+ * so no lane shuffling is needed. The words left over at the end of the run use the scalar kernel.
+ *
+ * The JIT only keeps vectors in registers when no vector value crosses a call that is not inlined,
+ * is merged from two branches or is carried round a loop. So each loop lives in the method that
+ * loads and stores its vectors, and its body is straight-line code: Conway and the other rules have
+ * a loop each, and any rule is applied to all nine counts with masks rather than by skipping counts.
+ * The shifts and adders are written out in the loops rather than in helper methods: every call
+ * spends the JIT's inlining budget, and a helper it stops inlining boxes every vector passed to it.
+ * The masks of a rule are built once and kept until the rule changes, so stepping a row allocates nothing.
+ *
+ * Needs the jdk.incubator.vector module to compile and run, so it lives in vector/ where javac *.java does not
+ * pick it up; build.sh compiles it separately with --add-modules jdk.incubator.vector into the same output.
+ * Only created through RowKernel.create(), which falls back to the scalar kernel if the class or the module is missing.
+ */
+
+public class VectorRowKernel implements RowKernel {
+	//constants
+	private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;	//the widest vector of longs
+	
+	//variables
+	private final ScalarRowKernel tail = new ScalarRowKernel();	//computes the words after the last whole vector
+	private volatile RuleMasks masks;	//masks of the last rule other than Conway's, shared by the threads stepping rows
+	
+	/*
+	 * the births and survivals of a rule as one mask per count, immutable so threads can share it without locking
+	 */
+	private static final class RuleMasks {
+		final Rule rule;			//the rule the masks were built from
+		final long[] births;		//all ones for every count that is a birth, otherwise zero
+		final long[] survivals;		//all ones for every count that is a survival, otherwise zero
+		
+		RuleMasks(Rule rule) {
+			this.rule = rule;
+			this.births = new long[9];
+			this.survivals = new long[9];
+			for (int n = 0; n <= 8; n++) {
+				births[n] = (rule.getBirth() & (1 << n)) != 0 ? -1L : 0;
+				survivals[n] = (rule.getSurvival() & (1 << n)) != 0 ? -1L : 0;
+			}
+		}
+	}
+	
+	public void stepRow(long[] cells, long[] next, int p, int words, int stride, Rule rule) {
+		int vectorEnd = p + SPECIES.loopBound(words);
+		
+		if (rule.isConway()) {
+			stepConway(cells, next, p, vectorEnd, stride);
+		}
+		else {
+			RuleMasks m = masks;
+			if (m == null || (m.rule != rule && !m.rule.equals(rule))) {
+				m = new RuleMasks(rule);	//two threads may both build them, either copy is right
+				masks = m;
+			}
+			stepRule(cells, next, p, vectorEnd, stride, m.births, m.survivals);
+		}
+		
+		tail.stepRow(cells, next, vectorEnd, p + words - vectorEnd, stride, rule);
+	}
+	
+	/*
+	 * computes the words [from, to) of next under Conway's rule (see DenseLifeEngine.nextWord), a vector at a time
+	 */
+	private static void stepConway(long[] cells, long[] next, int from, int to, int stride) {
+		int lanes = SPECIES.length();
+		for (int i = from; i < to; i += lanes) {
+			LongVector a = LongVector.fromArray(SPECIES, cells, i - stride);
+			LongVector b = LongVector.fromArray(SPECIES, cells, i);
+			LongVector c = LongVector.fromArray(SPECIES, cells, i + stride);
+			
+			//the neighbours of every bit, lined up with it
+			LongVector nw = a.lanewise(LSHL, 1).or(LongVector.fromArray(SPECIES, cells, i - stride - 1).lanewise(LSHR, 63));
+			LongVector ne = a.lanewise(LSHR, 1).or(LongVector.fromArray(SPECIES, cells, i - stride + 1).lanewise(LSHL, 63));
+			LongVector w = b.lanewise(LSHL, 1).or(LongVector.fromArray(SPECIES, cells, i - 1).lanewise(LSHR, 63));
+			LongVector e = b.lanewise(LSHR, 1).or(LongVector.fromArray(SPECIES, cells, i + 1).lanewise(LSHL, 63));
+			LongVector sw = c.lanewise(LSHL, 1).or(LongVector.fromArray(SPECIES, cells, i + stride - 1).lanewise(LSHR, 63));
+			LongVector se = c.lanewise(LSHR, 1).or(LongVector.fromArray(SPECIES, cells, i + stride + 1).lanewise(LSHL, 63));
+			
+			//add each row into a two bit number
+			LongVector a0 = nw.lanewise(XOR, a).lanewise(XOR, ne);
+			LongVector a1 = nw.and(a).or(ne.and(nw.lanewise(XOR, a)));
+			LongVector b0 = w.lanewise(XOR, e);
+			LongVector b1 = w.and(e);
+			LongVector c0 = sw.lanewise(XOR, c).lanewise(XOR, se);
+			LongVector c1 = sw.and(c).or(se.and(sw.lanewise(XOR, c)));
+			
+			//add the three rows together
+			LongVector s0 = a0.lanewise(XOR, b0).lanewise(XOR, c0);
+			LongVector carry = a0.and(b0).or(c0.and(a0.lanewise(XOR, b0)));
+			LongVector u = a1.lanewise(XOR, b1);
+			LongVector v = c1.lanewise(XOR, carry);
+			LongVector s1 = u.lanewise(XOR, v);
+			LongVector s2 = a1.and(b1).lanewise(XOR, c1.and(carry)).lanewise(XOR, u.and(v));
+			
+			s1.and(s2.not()).and(s0.or(b)).intoArray(next, i);
+		}
+	}
+	
+	/*
+	 * computes the words [from, to) of next under any rule, given as a mask per count of whether it is
+	 * a birth and whether it is a survival (see DenseLifeEngine.nextWord with birth and survival), a vector at a time
+	 */
+	private static void stepRule(long[] cells, long[] next, int from, int to, int stride, long[] births, long[] survivals) {
+		int lanes = SPECIES.length();
+		for (int i = from; i < to; i += lanes) {
+			LongVector a = LongVector.fromArray(SPECIES, cells, i - stride);
+			LongVector b = LongVector.fromArray(SPECIES, cells, i);
+			LongVector c = LongVector.fromArray(SPECIES, cells, i + stride);
+			
+			//the neighbours of every bit, lined up with it
+			LongVector nw = a.lanewise(LSHL, 1).or(LongVector.fromArray(SPECIES, cells, i - stride - 1).lanewise(LSHR, 63));
+			LongVector ne = a.lanewise(LSHR, 1).or(LongVector.fromArray(SPECIES, cells, i - stride + 1).lanewise(LSHL, 63));
+			LongVector w = b.lanewise(LSHL, 1).or(LongVector.fromArray(SPECIES, cells, i - 1).lanewise(LSHR, 63));
+			LongVector e = b.lanewise(LSHR, 1).or(LongVector.fromArray(SPECIES, cells, i + 1).lanewise(LSHL, 63));
+			LongVector sw = c.lanewise(LSHL, 1).or(LongVector.fromArray(SPECIES, cells, i + stride - 1).lanewise(LSHR, 63));
+			LongVector se = c.lanewise(LSHR, 1).or(LongVector.fromArray(SPECIES, cells, i + stride + 1).lanewise(LSHL, 63));
+			
+			//add each row into a two bit number
+			LongVector a0 = nw.lanewise(XOR, a).lanewise(XOR, ne);
+			LongVector a1 = nw.and(a).or(ne.and(nw.lanewise(XOR, a)));
+			LongVector b0 = w.lanewise(XOR, e);
+			LongVector b1 = w.and(e);
+			LongVector c0 = sw.lanewise(XOR, c).lanewise(XOR, se);
+			LongVector c1 = sw.and(c).or(se.and(sw.lanewise(XOR, c)));
+			
+			//add the three rows together into four bits
+			LongVector s0 = a0.lanewise(XOR, b0).lanewise(XOR, c0);
+			LongVector carry = a0.and(b0).or(c0.and(a0.lanewise(XOR, b0)));
+			LongVector u = a1.lanewise(XOR, b1);
+			LongVector v = c1.lanewise(XOR, carry);
+			LongVector s1 = u.lanewise(XOR, v);
+			LongVector p = a1.and(b1);
+			LongVector q = c1.and(carry);
+			LongVector r = u.and(v);
+			LongVector s2 = p.lanewise(XOR, q).lanewise(XOR, r);
+			LongVector s3 = p.and(q).or(r.and(p.or(q)));
+			
+			//the cells of each count that the rule makes alive: dead ones if it is a birth, alive ones if it is a survival
+			LongVector n0 = s0.not();
+			LongVector n1 = s1.not();
+			LongVector n2 = s2.not();
+			LongVector n3 = s3.not();
+			LongVector dead = b.not();
+			LongVector low0 = n1.and(n2).and(n3);	//counts 0 and 1
+			LongVector low2 = s1.and(n2).and(n3);	//counts 2 and 3
+			LongVector low4 = n1.and(s2).and(n3);	//counts 4 and 5
+			LongVector low6 = s1.and(s2).and(n3);	//counts 6 and 7
+			
+			n0.and(low0).and(dead.and(births[0]).or(b.and(survivals[0])))
+				.or(s0.and(low0).and(dead.and(births[1]).or(b.and(survivals[1]))))
+				.or(n0.and(low2).and(dead.and(births[2]).or(b.and(survivals[2]))))
+				.or(s0.and(low2).and(dead.and(births[3]).or(b.and(survivals[3]))))
+				.or(n0.and(low4).and(dead.and(births[4]).or(b.and(survivals[4]))))
+				.or(s0.and(low4).and(dead.and(births[5]).or(b.and(survivals[5]))))
+				.or(n0.and(low6).and(dead.and(births[6]).or(b.and(survivals[6]))))
+				.or(s0.and(low6).and(dead.and(births[7]).or(b.and(survivals[7]))))
+				.or(n0.and(n1).and(n2).and(s3).and(dead.and(births[8]).or(b.and(survivals[8]))))
+				.intoArray(next, i);
+		}
+	}
+	
+	public String toString() {
+		return "vector" + SPECIES.vectorBitSize();
+	}
+}